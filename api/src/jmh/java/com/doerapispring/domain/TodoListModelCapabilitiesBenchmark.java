@@ -0,0 +1,66 @@
+package com.doerapispring.domain;
+
+import com.doerapispring.domain.events.TodoMovedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import scala.collection.IndexedSeqView;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of working out what can be done with an unlocked list and reading each todo's capabilities,
+ * and of making the event for a single move.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoListModelCapabilitiesBenchmark {
+    @Param({"10", "1000", "10000"})
+    public int todos;
+
+    private final Date now = new Date();
+    private TodoListModel todoListModel;
+
+    @Setup
+    public void setUp() {
+        todoListModel = TodoListModels.unlocked(todos, now);
+    }
+
+    @Benchmark
+    public void capabilities(Blackhole blackhole) {
+        TodoListModelCapabilities capabilities = TodoListModel.capabilities(todoListModel, now);
+        blackhole.consume(capabilities.add().isDefined());
+        blackhole.consume(capabilities.unlock().isDefined());
+        consume(capabilities.todoCapabilities(), blackhole);
+        consume(capabilities.deferredTodoCapabilities(), blackhole);
+    }
+
+    @Benchmark
+    public TodoMovedEvent lastMove() {
+        IndexedSeqView<TodoCapabilities> deferredTodoCapabilities = TodoListModel.capabilities(todoListModel, now).deferredTodoCapabilities();
+        TodoCapabilities todoCapabilities = deferredTodoCapabilities.last();
+        return todoCapabilities.move().last();
+    }
+
+    private static void consume(IndexedSeqView<TodoCapabilities> todoCapabilities, Blackhole blackhole) {
+        for (int i = 0; i < todoCapabilities.length(); i++) {
+            TodoCapabilities capabilities = todoCapabilities.apply(i);
+            blackhole.consume(capabilities.index());
+            blackhole.consume(capabilities.moveTargets().length());
+        }
+    }
+}
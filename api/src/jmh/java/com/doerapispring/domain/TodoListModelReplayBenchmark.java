@@ -0,0 +1,53 @@
+package com.doerapispring.domain;
+
+import com.doerapispring.domain.events.TodoListEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of bringing a snapshot up to date by applying the events appended after it, as loading a list does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoListModelReplayBenchmark {
+    @Param({"10", "1000", "10000"})
+    public int todos;
+
+    @Param({"10", "1000", "10000"})
+    public int tail;
+
+    private TodoListModel snapshot;
+    private List<TodoListEvent> events;
+
+    @Setup
+    public void setUp() {
+        snapshot = TodoListModels.unlocked(todos, new Date());
+        events = TodoListModels.tail(snapshot, tail, 42L);
+    }
+
+    @Benchmark
+    public TodoListModel replay() {
+        TodoListModel todoListModel = snapshot;
+        for (TodoListEvent event : events) {
+            todoListModel = TodoListModel.applyEvent(todoListModel, event);
+        }
+        return todoListModel;
+    }
+}
@@ -0,0 +1,59 @@
+package com.doerapispring.domain;
+
+import com.doerapispring.domain.events.DeferredTodoAddedEvent;
+import com.doerapispring.domain.events.TodoCompletedEvent;
+import com.doerapispring.domain.events.TodoListEvent;
+import com.doerapispring.domain.events.TodoMovedEvent;
+import com.doerapispring.domain.events.TodoUpdatedEvent;
+import scala.Option;
+import scala.jdk.javaapi.CollectionConverters;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Seeded lists and event tails for the benchmarks to work on, the same for every run.
+ */
+public class TodoListModels {
+    private TodoListModels() {
+    }
+
+    public static TodoListModel unlocked(int todos, Date now) {
+        return new TodoListModel(
+            CollectionConverters.asScala(IntStream.range(0, todos).mapToObj(index -> new Todo("someTask" + index)).collect(Collectors.toList())).toVector(),
+            now,
+            Math.min(TodoListModel.MaxSize(), todos));
+    }
+
+    // Updates, moves and completions of todos anywhere in the list, with a todo added after each completion to keep its size steady
+    public static List<TodoListEvent> tail(TodoListModel todoListModel, int length, long seed) {
+        Random random = new Random(seed);
+        List<TodoListEvent> events = new ArrayList<>(length);
+        int size = todoListModel.todos().size();
+        while (events.size() < length) {
+            if (size == 0) {
+                events.add(new DeferredTodoAddedEvent("someAddedTask" + events.size()));
+                size++;
+                continue;
+            }
+            switch (random.nextInt(3)) {
+                case 0:
+                    events.add(new TodoUpdatedEvent(random.nextInt(size), "someUpdatedTask" + events.size()));
+                    break;
+                case 1:
+                    events.add(new TodoMovedEvent(random.nextInt(size), random.nextInt(size)));
+                    break;
+                default:
+                    events.add(new TodoCompletedEvent(random.nextInt(size), new Date(events.size()), Option.empty()));
+                    if (events.size() < length) {
+                        events.add(new DeferredTodoAddedEvent("someAddedTask" + events.size()));
+                    }
+            }
+        }
+        return events;
+    }
+}
@@ -0,0 +1,53 @@
+package com.doerapispring.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Cost of writing a page of completed history as HAL. History is only ever read a page at a time,
+ * so the size of a page, up to the largest one allowed, is what the response grows with.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompletedListBenchmark {
+    @Param({"50", "200"})
+    public int completed;
+
+    private final ObjectMapper objectMapper = HalObjectMappers.halObjectMapper();
+    private final HateoasLinkGenerator hateoasLinkGenerator = new TemplatedHateoasLinkGenerator();
+    private CompletedListResponse completedListResponse;
+
+    @Setup
+    public void setUp() {
+        completedListResponse = new CompletedListResponse(new CompletedListDTO(IntStream.range(0, completed)
+            .mapToObj(index -> new CompletedTodoDTO("someTask" + index, new Date(1591056000000L - index * 60000L)))
+            .collect(Collectors.toList())));
+        completedListResponse.add(hateoasLinkGenerator.completedListPageLink("someListId", null, completed).withSelfRel());
+        completedListResponse.add(hateoasLinkGenerator.completedListPageLink("someListId", "1591056000000.7", completed).withRel("next"));
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(completedListResponse);
+    }
+}
@@ -0,0 +1,65 @@
+package com.doerapispring.web;
+
+import com.doerapispring.domain.ListId;
+import com.doerapispring.domain.TodoListModel;
+import com.doerapispring.domain.TodoListModels;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the links in one list response, built with {@code linkTo(methodOn(...))} and from precompiled templates.
+ * Each invocation stands in for a new request, so the templated generator works out its base URI once per response.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HateoasLinkGeneratorBenchmark {
+    @Param({"methodOn", "templated"})
+    public String generator;
+
+    @Param({"10", "50"})
+    public int todos;
+
+    private final ListId listId = new ListId("someListId");
+    private final Date now = new Date();
+    private TodoListModelResourceTransformer todoListModelResourceTransformer;
+    private TodoListModel todoListModel;
+
+    @Setup
+    public void setUp() {
+        HateoasLinkGenerator hateoasLinkGenerator = generator.equals("templated") ? new TemplatedHateoasLinkGenerator() : new HateoasLinkGeneratorImpl();
+        todoListModelResourceTransformer = new TodoListModelResourceTransformer(hateoasLinkGenerator, new SimpleMeterRegistry());
+        todoListModel = TodoListModels.unlocked(todos, now);
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public TodoListReadModelResponse transform() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        return todoListModelResourceTransformer.transform(listId, todoListModel, now);
+    }
+}
@@ -0,0 +1,77 @@
+package com.doerapispring.web;
+
+import com.doerapispring.domain.ListId;
+import com.doerapispring.domain.TodoListModel;
+import com.doerapispring.domain.TodoListModels;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a list response: working out what can be done with the list and linking to it,
+ * and then writing the result as HAL, with a link per move or one templated move link per section.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoListReadModelBenchmark {
+    // A link per move grows with the square of the list, so lists stop short of the largest ones replayed
+    @Param({"10", "100", "1000"})
+    public int todos;
+
+    @Param({"EACH", "TEMPLATED"})
+    public MoveLinks moves;
+
+    private final ListId listId = new ListId("someListId");
+    private final Date now = new Date();
+    private final ObjectMapper objectMapper = HalObjectMappers.halObjectMapper();
+    private final TodoListModelResourceTransformer todoListModelResourceTransformer =
+        new TodoListModelResourceTransformer(new TemplatedHateoasLinkGenerator(), new SimpleMeterRegistry());
+    private TodoListModel todoListModel;
+    private TodoListReadModelResponse todoListReadModelResponse;
+
+    @Setup
+    public void setUp() {
+        MoveLinksContextHolder.set(moves);
+        todoListModel = TodoListModels.unlocked(todos, now);
+        todoListReadModelResponse = transform();
+    }
+
+    @TearDown
+    public void tearDown() {
+        MoveLinksContextHolder.clear();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public TodoListReadModelResponse transform() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        return todoListModelResourceTransformer.transform(listId, todoListModel, now);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(todoListReadModelResponse);
+    }
+}
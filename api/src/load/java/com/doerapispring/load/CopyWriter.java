@@ -0,0 +1,55 @@
+package com.doerapispring.load;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Streams rows into a table through {@code COPY ... FROM STDIN} in CSV, so that values holding JSON need no escaping
+ * beyond doubling their quotes. Each writer holds its own connection, as a connection can only copy into one table at a time.
+ */
+class CopyWriter implements AutoCloseable {
+    private final Connection connection;
+    private final Writer writer;
+    private long rows;
+
+    CopyWriter(Connection connection, String table, String... columns) throws SQLException {
+        this.connection = connection;
+        String copySql = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+        this.writer = new BufferedWriter(new OutputStreamWriter(
+            new PGCopyOutputStream(connection.unwrap(PGConnection.class), copySql, 1 << 16), StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    void write(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write('"');
+            writer.write(values[i].toString().replace("\"", "\"\""));
+            writer.write('"');
+        }
+        writer.write('\n');
+        rows++;
+    }
+
+    long getRows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException, SQLException {
+        try {
+            writer.close();
+        } finally {
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.doerapispring.load;
+
+import com.doerapispring.config.JsonConfiguration;
+import com.doerapispring.domain.events.TodoCompletedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Writes made-up list histories straight into list_events, with the completed_todos rows appending them would have
+ * written and a todo_lists snapshot per list, through COPY. Events are written as TodoListEventRepository writes them:
+ * the event's class name and its JSON from the application's own ObjectMapper.
+ * <p>
+ * Each list's history depends only on the seed and the list's position, so the same arguments always write the same rows.
+ * Most lists get a log-normally distributed number of events and a few get very long histories, e.g.
+ * gradle generateDataset -PdatasetArgs='users=100000 listsPerUser=2 medianEvents=100 largeLists=10 largeListEvents=150000'
+ * writes around 30 million events.
+ */
+public class DatasetGenerator {
+    private static final String DEFAULT_MIX = "ADD:10,ADD_DEFERRED:20,UPDATE:10,COMPLETE:25,DELETE:5,MOVE:15,PULL:5,ESCALATE:2,UNLOCK:3";
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter TIMESTAMP_WITH_ZONE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSX").withZone(ZoneOffset.UTC);
+
+    private final ObjectMapper objectMapper;
+    private final long seed;
+    private final int users;
+    private final int listsPerUser;
+    private final int medianEvents;
+    private final double eventsSigma;
+    private final int maxEvents;
+    private final int largeLists;
+    private final int largeListEvents;
+    private final int maxSnapshotTail;
+    private final long endMillis;
+    private final long spanMillis;
+    private final ListHistory listHistory;
+
+    DatasetGenerator(ObjectMapper objectMapper, Arguments arguments) {
+        this.objectMapper = objectMapper;
+        seed = arguments.getLong("seed", 42);
+        users = arguments.getInt("users", 1000);
+        listsPerUser = arguments.getInt("listsPerUser", 2);
+        medianEvents = arguments.getInt("medianEvents", 100);
+        eventsSigma = arguments.getDouble("eventsSigma", 1.5);
+        maxEvents = arguments.getInt("maxEvents", 50000);
+        largeLists = arguments.getInt("largeLists", 2);
+        largeListEvents = arguments.getInt("largeListEvents", 100000);
+        // The tail after each list's snapshot stays under the default doer.snapshots.max-events unless told otherwise
+        maxSnapshotTail = arguments.getInt("maxSnapshotTail", 100);
+        endMillis = Instant.parse(arguments.get("end", "2020-06-01T00:00:00Z")).toEpochMilli();
+        spanMillis = Duration.ofDays(arguments.getInt("days", 365)).toMillis();
+        Map<ListHistory.Step, Integer> mix = new EnumMap<>(ListHistory.Step.class);
+        for (String weightedStep : arguments.get("mix", DEFAULT_MIX).split(",")) {
+            String[] parts = weightedStep.split(":");
+            mix.put(ListHistory.Step.valueOf(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        listHistory = new ListHistory(mix, arguments.getInt("maxTodos", 500));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Arguments arguments = Arguments.parse(args);
+        ObjectMapper objectMapper;
+        try (ConfigurableApplicationContext applicationContext = new SpringApplicationBuilder(JacksonAutoConfiguration.class, JsonConfiguration.class)
+            .web(WebApplicationType.NONE)
+            .bannerMode(Banner.Mode.OFF)
+            .logStartupInfo(false)
+            .run()) {
+            objectMapper = applicationContext.getBean(ObjectMapper.class);
+        }
+        String url = arguments.get("url", "jdbc:postgresql://localhost:15433/doer_api_test");
+        String user = arguments.get("user", "postgres");
+        String password = arguments.get("password", "");
+        if (arguments.getBoolean("truncate", false)) {
+            try (Connection connection = DriverManager.getConnection(url, user, password);
+                 Statement statement = connection.createStatement()) {
+                statement.execute("TRUNCATE list_events, completed_todos, todo_lists");
+            }
+        }
+        try (CopyWriter listEvents = new CopyWriter(DriverManager.getConnection(url, user, password),
+            "list_events", "user_id", "list_id", "version", "event_class", "data", "created_at");
+             CopyWriter completedTodos = new CopyWriter(DriverManager.getConnection(url, user, password),
+                 "completed_todos", "user_id", "list_id", "version", "task", "completed_at");
+             CopyWriter todoLists = new CopyWriter(DriverManager.getConnection(url, user, password),
+                 "todo_lists", "user_id", "list_id", "data", "created_at", "version")) {
+            new DatasetGenerator(objectMapper, arguments).generate(listEvents, completedTodos, todoLists, System.out);
+        }
+    }
+
+    void generate(CopyWriter listEvents, CopyWriter completedTodos, CopyWriter todoLists, PrintStream out) throws Exception {
+        int lists = users * listsPerUser;
+        int largeListSpacing = largeLists > 0 ? Math.max(lists / largeLists, 1) : 0;
+        long started = System.nanoTime();
+        for (int list = 0; list < lists; list++) {
+            String userId = "dataset-" + seed + "-" + list / listsPerUser + "@example.com";
+            Random random = new Random(seed * 31 + list);
+            String listId = new UUID(random.nextLong(), random.nextLong()).toString();
+            boolean large = largeListSpacing > 0 && list % largeListSpacing == 0 && list / largeListSpacing < largeLists;
+            int events = large ? largeListEvents : eventCount(random);
+            int snapshotVersion = events - 1 - random.nextInt(Math.min(maxSnapshotTail, events) + 1);
+            long startMillis = endMillis - (long) (spanMillis * (0.1 + 0.9 * random.nextDouble()));
+            Snapshot snapshot = new Snapshot(objectMapper.writeValueAsString(ListHistory.emptyList()), startMillis);
+            listHistory.generate(random, events, startMillis, endMillis, (version, todoListEvent, createdAt, todoListModel) -> {
+                listEvents.write(userId, listId, version, todoListEvent.getClass().getName(),
+                    objectMapper.writeValueAsString(todoListEvent), TIMESTAMP.format(createdAt.toInstant()));
+                if (ListHistory.isCompletion(todoListEvent)) {
+                    TodoCompletedEvent todoCompletedEvent = (TodoCompletedEvent) todoListEvent;
+                    completedTodos.write(userId, listId, version, todoCompletedEvent.task().get(),
+                        TIMESTAMP_WITH_ZONE.format(todoCompletedEvent.completedAt().toInstant()));
+                }
+                if (version == snapshotVersion) {
+                    snapshot.data = objectMapper.writeValueAsString(todoListModel);
+                    snapshot.createdAtMillis = createdAt.getTime();
+                }
+            });
+            todoLists.write(userId, listId, snapshot.data, TIMESTAMP.format(Instant.ofEpochMilli(snapshot.createdAtMillis)), snapshotVersion);
+            if ((list + 1) % 10000 == 0 || list + 1 == lists) {
+                out.printf("%d of %d lists, %d events, %d completed todos in %d s%n",
+                    list + 1, lists, listEvents.getRows(), completedTodos.getRows(),
+                    Duration.ofNanos(System.nanoTime() - started).getSeconds());
+            }
+        }
+    }
+
+    // The list as of its snapshot version, which is before its first event for lists snapshotted at -1
+    private static class Snapshot {
+        private String data;
+        private long createdAtMillis;
+
+        private Snapshot(String data, long createdAtMillis) {
+            this.data = data;
+            this.createdAtMillis = createdAtMillis;
+        }
+    }
+
+    private int eventCount(Random random) {
+        long events = Math.round(medianEvents * Math.exp(eventsSigma * random.nextGaussian()));
+        return (int) Math.max(1, Math.min(maxEvents, events));
+    }
+}
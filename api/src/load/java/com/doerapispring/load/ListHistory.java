@@ -0,0 +1,152 @@
+package com.doerapispring.load;
+
+import com.doerapispring.domain.Todo;
+import com.doerapispring.domain.TodoCapabilities;
+import com.doerapispring.domain.TodoListModel;
+import com.doerapispring.domain.TodoListModelCapabilities;
+import com.doerapispring.domain.events.TodoCompletedEvent;
+import com.doerapispring.domain.events.TodoListEvent;
+import scala.collection.immutable.Vector$;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Makes up a list's events one at a time by picking, by weight, from what the list offers at the time of each event,
+ * so that every event is one the application could have written and the whole history replays.
+ */
+class ListHistory {
+    enum Step {
+        ADD, ADD_DEFERRED, UPDATE, COMPLETE, DELETE, MOVE, PULL, ESCALATE, UNLOCK
+    }
+
+    interface EventSink {
+        void append(int version, TodoListEvent todoListEvent, Date createdAt, TodoListModel todoListModel) throws Exception;
+    }
+
+    private static final String[] WORDS = {
+        "call", "email", "write", "review", "plan", "buy", "fix", "book", "clean", "read",
+        "the", "a", "new", "weekly", "team", "car", "report", "groceries", "dentist", "budget"};
+
+    private final Map<Step, Integer> mix;
+    private final int maxTodos;
+
+    ListHistory(Map<Step, Integer> mix, int maxTodos) {
+        this.mix = new EnumMap<>(mix);
+        this.maxTodos = maxTodos;
+    }
+
+    // Events are spread evenly between start and end, with each one landing at a random point within its share of the time
+    void generate(Random random, int events, long startMillis, long endMillis, EventSink eventSink) throws Exception {
+        TodoListModel todoListModel = emptyList();
+        double interval = (double) (endMillis - startMillis) / Math.max(events, 1);
+        for (int version = 0; version < events; version++) {
+            Date now = new Date(startMillis + (long) (interval * (version + random.nextDouble())));
+            TodoListEvent todoListEvent = TodoListModel.record(todoListModel, nextEvent(random, todoListModel, now));
+            todoListModel = TodoListModel.applyEvent(todoListModel, todoListEvent);
+            eventSink.append(version, todoListEvent, now, todoListModel);
+        }
+    }
+
+    static TodoListModel emptyList() {
+        return new TodoListModel(Vector$.MODULE$.<Todo>empty(), new Date(0L), 0);
+    }
+
+    private TodoListEvent nextEvent(Random random, TodoListModel todoListModel, Date now) {
+        TodoListModelCapabilities capabilities = TodoListModel.capabilities(todoListModel, now);
+        int todos = capabilities.todoCapabilities().size() + capabilities.deferredTodoCapabilities().size();
+        boolean roomForMore = todoListModel.todos().size() < maxTodos || todoListModel.todos().isEmpty();
+        List<Step> offered = new ArrayList<>();
+        int totalWeight = 0;
+        for (Map.Entry<Step, Integer> weightedStep : mix.entrySet()) {
+            if (isOffered(weightedStep.getKey(), capabilities, todos, roomForMore)) {
+                offered.add(weightedStep.getKey());
+                totalWeight += weightedStep.getValue();
+            }
+        }
+        Step step = Step.ADD_DEFERRED;
+        int pick = totalWeight > 0 ? random.nextInt(totalWeight) : 0;
+        for (Step offeredStep : offered) {
+            pick -= mix.get(offeredStep);
+            if (pick < 0) {
+                step = offeredStep;
+                break;
+            }
+        }
+        switch (step) {
+            case ADD:
+                return capabilities.add().isDefined()
+                    ? capabilities.add().get().apply(task(random))
+                    : capabilities.displace().get().apply(task(random));
+            case UPDATE:
+                return todo(random, capabilities, todos).update(task(random));
+            case COMPLETE:
+                return todo(random, capabilities, todos).complete(now);
+            case DELETE:
+                return todo(random, capabilities, todos).delete();
+            case MOVE:
+                // Moves go somewhere else in the todo's section, or the todo is updated when it is alone there
+                TodoCapabilities todoCapabilities = todo(random, capabilities, todos);
+                int targets = todoCapabilities.moveTargets().size();
+                if (targets < 2) {
+                    return todoCapabilities.update(task(random));
+                }
+                int target = random.nextInt(targets - 1);
+                int position = todoCapabilities.index() - todoCapabilities.moveTargets().start();
+                return todoCapabilities.move().apply(target < position ? target : target + 1);
+            case PULL:
+                return capabilities.pull().get();
+            case ESCALATE:
+                return capabilities.escalate().get();
+            case UNLOCK:
+                return capabilities.unlock().get().apply(now);
+            default:
+                return capabilities.addDeferred().apply(task(random));
+        }
+    }
+
+    private static boolean isOffered(Step step, TodoListModelCapabilities capabilities, int todos, boolean roomForMore) {
+        switch (step) {
+            case ADD:
+            case ADD_DEFERRED:
+                return roomForMore;
+            case UPDATE:
+            case COMPLETE:
+            case DELETE:
+            case MOVE:
+                return todos > 0;
+            case PULL:
+                return capabilities.pull().isDefined();
+            case ESCALATE:
+                return capabilities.escalate().isDefined();
+            case UNLOCK:
+                return capabilities.unlock().isDefined();
+            default:
+                return false;
+        }
+    }
+
+    private static TodoCapabilities todo(Random random, TodoListModelCapabilities capabilities, int todos) {
+        int todo = random.nextInt(todos);
+        int todosSize = capabilities.todoCapabilities().size();
+        return todo < todosSize
+            ? capabilities.todoCapabilities().apply(todo)
+            : capabilities.deferredTodoCapabilities().apply(todo - todosSize);
+    }
+
+    private static String task(Random random) {
+        StringBuilder task = new StringBuilder(WORDS[random.nextInt(WORDS.length)]);
+        for (int words = 1 + random.nextInt(5); words > 0; words--) {
+            task.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return task.toString();
+    }
+
+    static boolean isCompletion(TodoListEvent todoListEvent) {
+        return todoListEvent instanceof TodoCompletedEvent && ((TodoCompletedEvent) todoListEvent).task().isDefined();
+    }
+}
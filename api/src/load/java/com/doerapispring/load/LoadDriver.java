@@ -0,0 +1,130 @@
+package com.doerapispring.load;
+
+import com.doerapispring.DoerApiSpringApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Signs up synthetic users, gives each some lists and has them perform a weighted mix of list and todo operations,
+ * then reports latency percentiles, throughput and errors. Without a {@code baseUrl} the application is started
+ * in this process with the test profile, against the docker-compose test_db.
+ * <p>
+ * e.g. gradle loadTest -PloadArgs='users=50 operations=500 concurrency=16 seed=7'
+ */
+public class LoadDriver {
+    private final Workload workload;
+    private final String baseUrl;
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    LoadDriver(Workload workload, String baseUrl) {
+        this.workload = workload;
+        this.baseUrl = baseUrl;
+        restTemplate.setErrorHandler(new DefaultResponseErrorHandler() {
+            @Override
+            public boolean hasError(ClientHttpResponse response) {
+                return false;
+            }
+        });
+    }
+
+    public static void main(String[] args) throws Exception {
+        Workload workload = Workload.fromArgs(args);
+        ConfigurableApplicationContext applicationContext = null;
+        String baseUrl = workload.getBaseUrl();
+        if (baseUrl == null) {
+            applicationContext = SpringApplication.run(DoerApiSpringApplication.class,
+                "--spring.profiles.active=test",
+                "--server.port=0",
+                "--spring.jpa.properties.hibernate.show_sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.hibernate.type.descriptor.sql=WARN",
+                "--logging.level.org.springframework.jdbc.core=WARN");
+            baseUrl = "http://localhost:" + applicationContext.getEnvironment().getProperty("local.server.port");
+        }
+        try {
+            new LoadDriver(workload, baseUrl).run(System.out);
+        } finally {
+            if (applicationContext != null) {
+                applicationContext.close();
+            }
+        }
+    }
+
+    void run(PrintStream out) throws Exception {
+        out.printf("%d users, %d lists each, %d operations each after %d to warm up, %d at a time, seed %d%n  mix %s%n",
+            workload.getUsers(), workload.getLists(), workload.getOperations(), workload.getWarmup(),
+            workload.getConcurrency(), workload.getSeed(), workload.getMix());
+        // Users of different runs differ only by email, which keeps runs against the same database apart
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        List<SyntheticUser> users = new ArrayList<>();
+        for (int user = 0; user < workload.getUsers(); user++) {
+            users.add(new SyntheticUser(restTemplate, objectMapper, baseUrl, "load-" + run + "-" + user + "@example.com", workload.randomFor(user)));
+        }
+        ExecutorService executorService = Executors.newFixedThreadPool(workload.getConcurrency());
+        try {
+            LoadReport setupReport = new LoadReport();
+            long setupStart = System.nanoTime();
+            runEach(executorService, users, user -> {
+                user.signUp(workload.getLists(), setupReport);
+                for (int operation = 0; operation < workload.getWarmup(); operation++) {
+                    user.perform(workload.nextOperation(user.random()), setupReport);
+                }
+            });
+            Duration setupElapsed = Duration.ofNanos(System.nanoTime() - setupStart);
+            LoadReport report = new LoadReport();
+            long start = System.nanoTime();
+            runEach(executorService, users, user -> {
+                for (int operation = 0; operation < workload.getOperations(); operation++) {
+                    user.perform(workload.nextOperation(user.random()), report);
+                }
+            });
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            out.println("setup and warmup");
+            setupReport.print(out, setupElapsed);
+            out.println("measured");
+            report.print(out, elapsed);
+            if (workload.getHistogramFile() != null) {
+                writeHistogram(report.total(false), workload.getHistogramFile());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static void runEach(ExecutorService executorService, List<SyntheticUser> users, UserTask task) throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        for (SyntheticUser user : users) {
+            futures.add(executorService.submit(() -> task.run(user)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    // The full latency distribution, in milliseconds, for comparing runs beyond the percentiles printed
+    private static void writeHistogram(Histogram histogram, String histogramFile) throws Exception {
+        try (PrintStream out = new PrintStream(new FileOutputStream(histogramFile))) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private interface UserTask {
+        void run(SyntheticUser user);
+    }
+}
@@ -0,0 +1,75 @@
+package com.doerapispring.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies, in microseconds, and failures of the requests made for each operation.
+ */
+class LoadReport {
+    private final Map<Operation, Histogram> latencies = new ConcurrentSkipListMap<>();
+    private final Map<Operation, LongAdder> errors = new ConcurrentSkipListMap<>();
+
+    void record(Operation operation, long latencyNanos, boolean failed) {
+        latencies.computeIfAbsent(operation, key -> new ConcurrentHistogram(3))
+            .recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        if (failed) {
+            errors.computeIfAbsent(operation, key -> new LongAdder()).increment();
+        }
+    }
+
+    Histogram total(boolean includeSetup) {
+        Histogram total = new Histogram(3);
+        latencies.forEach((operation, histogram) -> {
+            if (includeSetup || !isSetup(operation)) {
+                total.add(histogram);
+            }
+        });
+        return total;
+    }
+
+    void print(PrintStream out, Duration elapsed) {
+        out.printf("%-16s %8s %8s %10s %10s %10s %10s %10s%n", "operation", "count", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        latencies.forEach((operation, histogram) -> printRow(out, operation.getKey(), histogram, errorCount(operation)));
+        long totalErrors = errors.entrySet().stream()
+            .filter(entry -> !isSetup(entry.getKey()))
+            .mapToLong(entry -> entry.getValue().sum())
+            .sum();
+        Histogram total = total(false);
+        printRow(out, "total", total, totalErrors);
+        double seconds = elapsed.toNanos() / 1e9;
+        out.printf("%d operations in %.1f s: %.1f ops/s, %.2f%% errors (signup and list creation excluded)%n",
+            total.getTotalCount(),
+            seconds,
+            total.getTotalCount() / seconds,
+            total.getTotalCount() == 0 ? 0.0 : 100.0 * totalErrors / total.getTotalCount());
+    }
+
+    private long errorCount(Operation operation) {
+        LongAdder count = errors.get(operation);
+        return count == null ? 0 : count.sum();
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram histogram, long errorCount) {
+        out.printf("%-16s %8d %8d %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+            name,
+            histogram.getTotalCount(),
+            errorCount,
+            histogram.getValueAtPercentile(50) / 1000.0,
+            histogram.getValueAtPercentile(90) / 1000.0,
+            histogram.getValueAtPercentile(99) / 1000.0,
+            histogram.getValueAtPercentile(99.9) / 1000.0,
+            histogram.getMaxValue() / 1000.0);
+    }
+
+    private static boolean isSetup(Operation operation) {
+        return operation == Operation.SIGNUP || operation == Operation.CREATE_LIST;
+    }
+}
@@ -0,0 +1,38 @@
+package com.doerapispring.load;
+
+import java.util.Arrays;
+
+enum Operation {
+    SIGNUP("signup"),
+    CREATE_LIST("createList"),
+    SHOW("show"),
+    SHOW_ALL("showAll"),
+    COMPLETED("completed"),
+    CREATE("create"),
+    CREATE_DEFERRED("createDeferred"),
+    UPDATE("update"),
+    COMPLETE("complete"),
+    DELETE("delete"),
+    MOVE("move"),
+    DISPLACE("displace"),
+    PULL("pull"),
+    ESCALATE("escalate"),
+    UNLOCK("unlock");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    static Operation of(String key) {
+        return Arrays.stream(values())
+            .filter(operation -> operation.key.equals(key))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Unknown operation: " + key));
+    }
+}
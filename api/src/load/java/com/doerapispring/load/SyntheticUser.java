@@ -0,0 +1,187 @@
+package com.doerapispring.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * A user signed up for the run who acts on their lists by following the links in the last response for each list,
+ * the way a client would, so only operations the list offers are attempted.
+ */
+class SyntheticUser {
+    private static final String SESSION_TOKEN_HEADER = "Session-Token";
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final String email;
+    private final Random random;
+    private final List<String> listHrefs = new ArrayList<>();
+    private final Map<String, JsonNode> lists = new HashMap<>();
+    private String sessionToken;
+    private int tasks;
+
+    SyntheticUser(RestTemplate restTemplate, ObjectMapper objectMapper, String baseUrl, String email, Random random) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.email = email;
+        this.random = random;
+    }
+
+    Random random() {
+        return random;
+    }
+
+    void signUp(int listCount, LoadReport report) {
+        Map<String, String> signupForm = new HashMap<>();
+        signupForm.put("email", email);
+        signupForm.put("password", "password");
+        JsonNode session = exchange(Operation.SIGNUP, HttpMethod.POST, baseUrl + "/v1/signup", signupForm, report);
+        sessionToken = session.path("session").path("token").asText();
+        for (int list = 1; list < listCount; list++) {
+            exchange(Operation.CREATE_LIST, HttpMethod.POST, baseUrl + "/v1/lists", Collections.singletonMap("name", "list" + list), report);
+        }
+        JsonNode showAll = exchange(Operation.SHOW_ALL, HttpMethod.GET, baseUrl + "/v1/lists", null, report);
+        StreamSupport.stream(showAll.path("lists").spliterator(), false)
+            .sorted(Comparator.comparing(list -> list.path("name").asText()))
+            .map(list -> list.path("_links").path("list").path("href").asText())
+            .forEach(listHrefs::add);
+        for (String listHref : listHrefs) {
+            lists.put(listHref, exchange(Operation.SHOW, HttpMethod.GET, listHref, null, report));
+        }
+    }
+
+    void perform(Operation operation, LoadReport report) {
+        String listHref = listHrefs.get(random.nextInt(listHrefs.size()));
+        JsonNode list = lists.get(listHref).path("list");
+        String href;
+        Object body = null;
+        HttpMethod method = HttpMethod.POST;
+        switch (operation) {
+            case SHOW:
+                href = listHref;
+                method = HttpMethod.GET;
+                break;
+            case SHOW_ALL:
+                href = baseUrl + "/v1/lists";
+                method = HttpMethod.GET;
+                break;
+            case COMPLETED:
+                href = link(list, "completed");
+                method = HttpMethod.GET;
+                break;
+            case UPDATE:
+                href = todoLink(list, "update");
+                method = HttpMethod.PUT;
+                body = todoForm();
+                break;
+            case DELETE:
+                href = todoLink(list, "delete");
+                method = HttpMethod.DELETE;
+                break;
+            case COMPLETE:
+            case MOVE:
+                href = todoLink(list, operation.getKey());
+                break;
+            case CREATE:
+            case CREATE_DEFERRED:
+            case DISPLACE:
+                href = link(list, operation.getKey());
+                body = todoForm();
+                break;
+            default:
+                href = link(list, operation.getKey());
+        }
+        if (href == null) {
+            // Whatever the list does not offer right now, e.g. completing a todo in an empty list, adds to it instead
+            perform(Operation.CREATE_DEFERRED, listHref, link(list, "createDeferred"), HttpMethod.POST, todoForm(), report);
+            return;
+        }
+        perform(operation, listHref, href, method, body, report);
+    }
+
+    private void perform(Operation operation, String listHref, String href, HttpMethod method, Object body, LoadReport report) {
+        JsonNode response = exchange(operation, method, href, body, report);
+        if (response.has("list") && operation != Operation.COMPLETED) {
+            lists.put(listHref, response);
+        }
+    }
+
+    private JsonNode exchange(Operation operation, HttpMethod method, String href, Object body, LoadReport report) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(Collections.singletonList(MediaType.parseMediaType("application/hal+json")));
+        if (sessionToken != null) {
+            headers.set(SESSION_TOKEN_HEADER, sessionToken);
+        }
+        long start = System.nanoTime();
+        try {
+            ResponseEntity<String> response = restTemplate.exchange(href, method, new HttpEntity<>(body, headers), String.class);
+            long latency = System.nanoTime() - start;
+            boolean failed = response.getStatusCode().isError();
+            report.record(operation, latency, failed);
+            return failed || response.getBody() == null ? objectMapper.createObjectNode() : objectMapper.readTree(response.getBody());
+        } catch (Exception e) {
+            report.record(operation, System.nanoTime() - start, true);
+            return objectMapper.createObjectNode();
+        }
+    }
+
+    private Map<String, String> todoForm() {
+        return Collections.singletonMap("task", "task" + tasks++);
+    }
+
+    private static String link(JsonNode resource, String rel) {
+        List<String> hrefs = hrefs(resource, rel);
+        return hrefs.isEmpty() ? null : hrefs.get(0);
+    }
+
+    // Any todo in either section that offers the link, and any one of its targets when it offers several
+    private String todoLink(JsonNode list, String rel) {
+        List<List<String>> candidates = new ArrayList<>();
+        for (String section : new String[]{"todos", "deferredTodos"}) {
+            for (JsonNode todo : list.path(section)) {
+                List<String> hrefs = hrefs(todo, rel);
+                if (!hrefs.isEmpty()) {
+                    candidates.add(hrefs);
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        List<String> hrefs = candidates.get(random.nextInt(candidates.size()));
+        return hrefs.get(random.nextInt(hrefs.size()));
+    }
+
+    private static List<String> hrefs(JsonNode resource, String rel) {
+        JsonNode links = resource.path("_links").path(rel);
+        List<JsonNode> linkNodes = links.isArray()
+            ? StreamSupport.stream(links.spliterator(), false).collect(Collectors.toList())
+            : links.isMissingNode() ? Collections.emptyList() : Collections.singletonList(links);
+        return linkNodes.stream()
+            .map(link -> withoutTemplate(link.path("href").asText()))
+            .collect(Collectors.toList());
+    }
+
+    private static String withoutTemplate(String href) {
+        int template = href.indexOf('{');
+        return template < 0 ? href : href.substring(0, template);
+    }
+}
@@ -0,0 +1,103 @@
+package com.doerapispring.load;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * What a load run does, read from {@code key=value} arguments. Runs with the same arguments, seed included,
+ * sign up the same number of users and have each of them perform the same sequence of operations.
+ */
+class Workload {
+    private static final String DEFAULT_MIX = "show:30,create:10,createDeferred:10,update:10,complete:10,delete:5,move:10," +
+        "displace:3,pull:5,escalate:2,unlock:2,completed:2,showAll:1";
+
+    private final String baseUrl;
+    private final int users;
+    private final int lists;
+    private final int warmup;
+    private final int operations;
+    private final int concurrency;
+    private final long seed;
+    private final Map<Operation, Integer> mix;
+    private final int totalWeight;
+    private final String histogramFile;
+
+    private Workload(Arguments arguments) {
+        baseUrl = arguments.get("baseUrl");
+        users = arguments.getInt("users", 20);
+        lists = arguments.getInt("lists", 2);
+        warmup = arguments.getInt("warmup", 20);
+        operations = arguments.getInt("operations", 200);
+        concurrency = arguments.getInt("concurrency", 8);
+        seed = arguments.getLong("seed", 42);
+        histogramFile = arguments.get("histogramFile");
+        Map<Operation, Integer> mix = new LinkedHashMap<>();
+        for (String weightedOperation : arguments.get("mix", DEFAULT_MIX).split(",")) {
+            String[] parts = weightedOperation.split(":");
+            mix.put(Operation.of(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        this.mix = Collections.unmodifiableMap(mix);
+        totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        if (lists < 1 || totalWeight <= 0) {
+            throw new IllegalArgumentException("A workload needs at least one list and an operation to perform");
+        }
+    }
+
+    static Workload fromArgs(String[] args) {
+        return new Workload(Arguments.parse(args));
+    }
+
+    Operation nextOperation(Random random) {
+        int pick = random.nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> weightedOperation : mix.entrySet()) {
+            pick -= weightedOperation.getValue();
+            if (pick < 0) {
+                return weightedOperation.getKey();
+            }
+        }
+        throw new IllegalStateException("Weights changed while picking an operation");
+    }
+
+    // Each user draws from its own generator, so its operations do not depend on how users are scheduled
+    Random randomFor(int user) {
+        return new Random(seed * 31 + user);
+    }
+
+    String getBaseUrl() {
+        return baseUrl;
+    }
+
+    int getUsers() {
+        return users;
+    }
+
+    int getLists() {
+        return lists;
+    }
+
+    int getWarmup() {
+        return warmup;
+    }
+
+    int getOperations() {
+        return operations;
+    }
+
+    int getConcurrency() {
+        return concurrency;
+    }
+
+    long getSeed() {
+        return seed;
+    }
+
+    Map<Operation, Integer> getMix() {
+        return mix;
+    }
+
+    String getHistogramFile() {
+        return histogramFile;
+    }
+}
@@ -0,0 +1,9 @@
+package com.doerapispring.config;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Optional;
+
+public interface ApplicationEventOrderingKey {
+    Optional<Object> of(ApplicationEvent event);
+}
@@ -0,0 +1,132 @@
+package com.doerapispring.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class ApplicationEventTaskExecutor extends ThreadPoolTaskExecutor implements MeterBinder, SmartLifecycle {
+    public enum SaturationPolicy {
+        CALLER_RUNS,
+        BLOCK,
+        REJECT
+    }
+
+    private final String name;
+    private final SaturationPolicy saturationPolicy;
+    private final Duration blockTimeout;
+    private volatile Timer lagTimer;
+    private volatile Counter saturatedCounter;
+    private volatile boolean running;
+
+    public ApplicationEventTaskExecutor(String name,
+                                        int corePoolSize,
+                                        int maxPoolSize,
+                                        int queueCapacity,
+                                        SaturationPolicy saturationPolicy,
+                                        Duration blockTimeout,
+                                        Duration awaitTermination) {
+        this.name = name;
+        this.saturationPolicy = saturationPolicy;
+        this.blockTimeout = blockTimeout;
+        setCorePoolSize(corePoolSize);
+        setMaxPoolSize(maxPoolSize);
+        setQueueCapacity(queueCapacity);
+        setThreadNamePrefix(name + "-");
+        setWaitForTasksToCompleteOnShutdown(true);
+        setAwaitTerminationMillis(awaitTermination.toMillis());
+        setRejectedExecutionHandler(rejectedExecutionHandler());
+        setTaskDecorator(runnable -> {
+            long queuedAt = System.nanoTime();
+            return () -> {
+                Timer timer = lagTimer;
+                if (timer != null) {
+                    timer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                }
+                runnable.run();
+            };
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        ExecutorServiceMetrics.monitor(registry, getThreadPoolExecutor(), name, Collections.<Tag>emptyList());
+        lagTimer = Timer.builder("doer.events.lag")
+            .description("Time application events wait in the queue before being delivered")
+            .tag("executor", name)
+            .register(registry);
+        saturatedCounter = Counter.builder("doer.events.saturated")
+            .description("Application events handed to the saturation policy because the queue was full")
+            .tag("executor", name)
+            .tag("policy", saturationPolicy.name())
+            .register(registry);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        shutdown();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 2048;
+    }
+
+    private RejectedExecutionHandler rejectedExecutionHandler() {
+        return (runnable, executor) -> {
+            // Delivered on the publishing thread while the pool drains
+            if (executor.isShutdown()) {
+                runnable.run();
+                return;
+            }
+            Counter counter = saturatedCounter;
+            if (counter != null) {
+                counter.increment();
+            }
+            switch (saturationPolicy) {
+                case CALLER_RUNS:
+                    runnable.run();
+                    break;
+                case BLOCK:
+                    block(runnable, executor);
+                    break;
+                case REJECT:
+                default:
+                    throw new RejectedExecutionException("application event queue is full");
+            }
+        };
+    }
+
+    private void block(Runnable runnable, ThreadPoolExecutor executor) {
+        try {
+            if (!executor.getQueue().offer(runnable, blockTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException("application event queue stayed full for " + blockTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("interrupted while waiting for room in the application event queue", e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.doerapispring.config;
 
 import com.doerapispring.domain.DomainException;
+import com.doerapispring.domain.ListOwnedElsewhereException;
 import org.springframework.context.MessageSource;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.http.HttpHeaders;
@@ -12,9 +13,12 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import javax.servlet.http.HttpServletRequest;
 import java.lang.annotation.Annotation;
 import java.util.List;
 import java.util.Locale;
@@ -61,7 +65,16 @@ class ApplicationExceptionHandler extends ResponseEntityExceptionHandler {
         ErrorResponse errorResponse = new ErrorResponse(emptyList(), singletonList(new GlobalError(message)));
         Annotation annotation = AnnotationUtils.findAnnotation(exception.getClass(), ResponseStatus.class);
         HttpStatus httpStatus = (HttpStatus) AnnotationUtils.getValue(annotation);
-        return handleExceptionInternal(exception, errorResponse, null, httpStatus != null ? httpStatus : HttpStatus.BAD_REQUEST, request);
+        HttpHeaders headers = new HttpHeaders();
+        if (exception instanceof ListOwnedElsewhereException && request instanceof ServletWebRequest) {
+            HttpServletRequest servletRequest = ((ServletWebRequest) request).getRequest();
+            headers.setLocation(UriComponentsBuilder.fromHttpUrl(((ListOwnedElsewhereException) exception).getOwnerAddress())
+                .path(servletRequest.getRequestURI())
+                .query(servletRequest.getQueryString())
+                .build(true)
+                .toUri());
+        }
+        return handleExceptionInternal(exception, errorResponse, headers, httpStatus != null ? httpStatus : HttpStatus.BAD_REQUEST, request);
     }
 
     private String buildMessageOrUseDefault(ObjectError objectError, String defaultMessage) {
@@ -1,21 +1,59 @@
 package com.doerapispring.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.context.event.ApplicationEventMulticaster;
 import org.springframework.context.event.SimpleApplicationEventMulticaster;
-import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.time.Duration;
 
 @Configuration
+@Profile("!test")
 public class EventsConfiguration {
+    @Bean
+    public ApplicationEventTaskExecutor applicationEventTaskExecutor(
+        @Value("${doer.events.executor.core-pool-size:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int corePoolSize,
+        @Value("${doer.events.executor.max-pool-size:#{2 * T(java.lang.Runtime).getRuntime().availableProcessors()}}") int maxPoolSize,
+        @Value("${doer.events.executor.queue-capacity:1000}") int queueCapacity,
+        @Value("${doer.events.executor.saturation-policy:CALLER_RUNS}") ApplicationEventTaskExecutor.SaturationPolicy saturationPolicy,
+        @Value("${doer.events.executor.block-timeout:1s}") Duration blockTimeout,
+        @Value("${doer.events.executor.await-termination:30s}") Duration awaitTermination) {
+        return new ApplicationEventTaskExecutor(
+            "applicationEvent",
+            corePoolSize,
+            maxPoolSize,
+            queueCapacity,
+            saturationPolicy,
+            blockTimeout,
+            awaitTermination);
+    }
+
+    @Bean
+    public KeyedTaskExecutor applicationEventLanes(
+        @Value("${doer.events.lanes.count:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int laneCount,
+        @Value("${doer.events.lanes.queue-capacity:1000}") int queueCapacity,
+        @Value("${doer.events.executor.saturation-policy:CALLER_RUNS}") ApplicationEventTaskExecutor.SaturationPolicy saturationPolicy,
+        @Value("${doer.events.executor.block-timeout:1s}") Duration blockTimeout,
+        @Value("${doer.events.executor.await-termination:30s}") Duration awaitTermination) {
+        return new KeyedTaskExecutor(
+            "applicationEventLane",
+            laneCount,
+            queueCapacity,
+            saturationPolicy,
+            blockTimeout,
+            awaitTermination);
+    }
+
     @Bean(name = "applicationEventMulticaster")
-    @Profile("!test")
-    public ApplicationEventMulticaster simpleApplicationEventMulticaster() {
+    public ApplicationEventMulticaster simpleApplicationEventMulticaster(ApplicationEventTaskExecutor applicationEventTaskExecutor,
+                                                                         KeyedTaskExecutor applicationEventLanes,
+                                                                         ApplicationEventOrderingKey applicationEventOrderingKey) {
         SimpleApplicationEventMulticaster eventMulticaster
-            = new SimpleApplicationEventMulticaster();
+            = new KeyedApplicationEventMulticaster(applicationEventLanes, applicationEventOrderingKey);
 
-        eventMulticaster.setTaskExecutor(new SimpleAsyncTaskExecutor());
+        eventMulticaster.setTaskExecutor(applicationEventTaskExecutor);
         return eventMulticaster;
     }
 }
@@ -0,0 +1,34 @@
+package com.doerapispring.config;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
+import org.springframework.core.ResolvableType;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+public class KeyedApplicationEventMulticaster extends SimpleApplicationEventMulticaster {
+    private final KeyedTaskExecutor keyedTaskExecutor;
+    private final ApplicationEventOrderingKey applicationEventOrderingKey;
+
+    public KeyedApplicationEventMulticaster(KeyedTaskExecutor keyedTaskExecutor,
+                                            ApplicationEventOrderingKey applicationEventOrderingKey) {
+        this.keyedTaskExecutor = keyedTaskExecutor;
+        this.applicationEventOrderingKey = applicationEventOrderingKey;
+    }
+
+    @Override
+    public void multicastEvent(ApplicationEvent event, ResolvableType eventType) {
+        Optional<Object> orderingKey = applicationEventOrderingKey.of(event);
+        if (!orderingKey.isPresent()) {
+            super.multicastEvent(event, eventType);
+            return;
+        }
+        Executor lane = keyedTaskExecutor.laneFor(orderingKey.get());
+        ResolvableType type = eventType != null ? eventType : ResolvableType.forInstance(event);
+        for (ApplicationListener<?> listener : getApplicationListeners(event, type)) {
+            lane.execute(() -> invokeListener(listener, event));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.doerapispring.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+public class KeyedTaskExecutor implements InitializingBean, DisposableBean, SmartLifecycle, MeterBinder {
+    private final ApplicationEventTaskExecutor[] lanes;
+    private volatile boolean running;
+
+    public KeyedTaskExecutor(String name,
+                             int laneCount,
+                             int queueCapacity,
+                             ApplicationEventTaskExecutor.SaturationPolicy saturationPolicy,
+                             Duration blockTimeout,
+                             Duration awaitTermination) {
+        // A task run on the caller would overtake the ones already queued for its key
+        ApplicationEventTaskExecutor.SaturationPolicy lanePolicy = saturationPolicy == ApplicationEventTaskExecutor.SaturationPolicy.CALLER_RUNS
+            ? ApplicationEventTaskExecutor.SaturationPolicy.BLOCK
+            : saturationPolicy;
+        lanes = new ApplicationEventTaskExecutor[laneCount];
+        for (int lane = 0; lane < laneCount; lane++) {
+            lanes[lane] = new ApplicationEventTaskExecutor(name + "-" + lane, 1, 1, queueCapacity, lanePolicy, blockTimeout, awaitTermination);
+        }
+    }
+
+    public Executor laneFor(Object key) {
+        int hash = key.hashCode();
+        return lanes[Math.floorMod(hash ^ (hash >>> 16), lanes.length)];
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        for (ApplicationEventTaskExecutor lane : lanes) {
+            lane.initialize();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        for (ApplicationEventTaskExecutor lane : lanes) {
+            lane.destroy();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (ApplicationEventTaskExecutor lane : lanes) {
+            lane.bindTo(registry);
+        }
+    }
+
+    @Override
+    public void start() {
+        for (ApplicationEventTaskExecutor lane : lanes) {
+            lane.start();
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (ApplicationEventTaskExecutor lane : lanes) {
+            lane.getThreadPoolExecutor().shutdown();
+        }
+        for (ApplicationEventTaskExecutor lane : lanes) {
+            lane.stop();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 2048;
+    }
+}
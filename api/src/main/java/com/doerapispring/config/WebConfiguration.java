@@ -1,14 +1,33 @@
 package com.doerapispring.config;
 
+import com.doerapispring.web.DurabilityInterceptor;
+import com.doerapispring.web.IfMatchInterceptor;
+import com.doerapispring.web.MoveLinksInterceptor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.time.Clock;
 
 @Configuration
-public class WebConfiguration {
+public class WebConfiguration implements WebMvcConfigurer {
+    private final Environment environment;
+
+    public WebConfiguration(Environment environment) {
+        this.environment = environment;
+    }
+
     @Bean
     public Clock clock() {
         return Clock.systemDefaultZone();
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new DurabilityInterceptor(environment));
+        registry.addInterceptor(new IfMatchInterceptor());
+        registry.addInterceptor(new MoveLinksInterceptor());
+    }
 }
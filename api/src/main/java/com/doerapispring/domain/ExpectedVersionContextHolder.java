@@ -0,0 +1,22 @@
+package com.doerapispring.domain;
+
+import java.util.Optional;
+
+public class ExpectedVersionContextHolder {
+    private static final ThreadLocal<Integer> expectedVersion = new ThreadLocal<>();
+
+    private ExpectedVersionContextHolder() {
+    }
+
+    public static Optional<Integer> get() {
+        return Optional.ofNullable(expectedVersion.get());
+    }
+
+    public static void set(int value) {
+        expectedVersion.set(value);
+    }
+
+    public static void clear() {
+        expectedVersion.remove();
+    }
+}
@@ -0,0 +1,7 @@
+package com.doerapispring.domain;
+
+public class InvalidCursorException extends DomainException {
+    public InvalidCursorException(String cursor) {
+        super("cursor " + cursor + " is not valid");
+    }
+}
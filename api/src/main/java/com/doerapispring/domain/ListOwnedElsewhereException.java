@@ -0,0 +1,18 @@
+package com.doerapispring.domain;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TEMPORARY_REDIRECT)
+public class ListOwnedElsewhereException extends DomainException {
+    private final String ownerAddress;
+
+    public ListOwnedElsewhereException(String listId, String ownerAddress) {
+        super("list " + listId + " is owned by " + ownerAddress);
+        this.ownerAddress = ownerAddress;
+    }
+
+    public String getOwnerAddress() {
+        return ownerAddress;
+    }
+}
@@ -0,0 +1,11 @@
+package com.doerapispring.domain;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ListOwnershipStoppedException extends DomainException {
+    public ListOwnershipStoppedException(String listId) {
+        super("list " + listId + " cannot be claimed while this node is shutting down");
+    }
+}
@@ -0,0 +1,11 @@
+package com.doerapispring.domain;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class ListVersionMismatchException extends DomainException {
+    public ListVersionMismatchException(String message) {
+        super(message);
+    }
+}
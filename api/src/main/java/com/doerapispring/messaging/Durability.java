@@ -0,0 +1,7 @@
+package com.doerapispring.messaging;
+
+public enum Durability {
+    FIRE_AND_FORGET,
+    SYNCHRONOUS,
+    GROUP_COMMIT
+}
@@ -0,0 +1,22 @@
+package com.doerapispring.messaging;
+
+import java.util.Optional;
+
+public class DurabilityContextHolder {
+    private static final ThreadLocal<Durability> durability = new ThreadLocal<>();
+
+    private DurabilityContextHolder() {
+    }
+
+    public static Optional<Durability> get() {
+        return Optional.ofNullable(durability.get());
+    }
+
+    public static void set(Durability value) {
+        durability.set(value);
+    }
+
+    public static void clear() {
+        durability.remove();
+    }
+}
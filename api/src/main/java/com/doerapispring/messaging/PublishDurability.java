@@ -0,0 +1,10 @@
+package com.doerapispring.messaging;
+
+import java.lang.annotation.*;
+
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface PublishDurability {
+    Durability value();
+}
@@ -0,0 +1,55 @@
+package com.doerapispring.web;
+
+import com.doerapispring.messaging.Durability;
+import com.doerapispring.messaging.DurabilityContextHolder;
+import com.doerapispring.messaging.PublishDurability;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Optional;
+
+public class DurabilityInterceptor implements HandlerInterceptor {
+    private static final String ENDPOINTS_PROPERTY = "doer.events.durability.endpoints.";
+
+    private final PropertyResolver propertyResolver;
+
+    public DurabilityInterceptor(PropertyResolver propertyResolver) {
+        this.propertyResolver = propertyResolver;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            HandlerMethod handlerMethod = (HandlerMethod) handler;
+            configured(handlerMethod)
+                .map(Optional::of)
+                .orElseGet(() -> annotated(handlerMethod))
+                .ifPresent(DurabilityContextHolder::set);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        DurabilityContextHolder.clear();
+    }
+
+    // doer.events.durability.endpoints.<Controller>.<method>, or .<Controller> for all of its endpoints
+    private Optional<Durability> configured(HandlerMethod handlerMethod) {
+        String controller = ENDPOINTS_PROPERTY + handlerMethod.getBeanType().getSimpleName();
+        return Optional.ofNullable(propertyResolver.getProperty(controller + "." + handlerMethod.getMethod().getName(), Durability.class))
+            .map(Optional::of)
+            .orElseGet(() -> Optional.ofNullable(propertyResolver.getProperty(controller, Durability.class)));
+    }
+
+    private static Optional<Durability> annotated(HandlerMethod handlerMethod) {
+        return Optional.ofNullable(handlerMethod.getMethodAnnotation(PublishDurability.class))
+            .map(Optional::of)
+            .orElseGet(() -> Optional.ofNullable(AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), PublishDurability.class)))
+            .map(PublishDurability::value);
+    }
+}
@@ -25,10 +25,16 @@ interface HateoasLinkGenerator {
 
     Link moveTodoLink(String listId, int index, int targetIndex);
 
+    Link moveTodoTemplateLink(String listId);
+
     Link listPullTodosLink(String listId);
 
     Link listUnlockLink(String listId);
 
+    Link listImportLink(String listId);
+
+    Link listCommandsLink(String listId);
+
     Link listLink(String listId);
 
     Link createTodoLink(String listId);
@@ -37,6 +43,8 @@ interface HateoasLinkGenerator {
 
     Link completedListLink(String listId);
 
+    Link completedListPageLink(String listId, String before, Integer limit);
+
     Link listEscalateTodoLink(String listId);
 
     Link showListsLink();
@@ -0,0 +1,40 @@
+package com.doerapispring.web;
+
+import com.doerapispring.domain.ExpectedVersionContextHolder;
+import com.doerapispring.domain.ListVersionMismatchException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+public class IfMatchInterceptor implements HandlerInterceptor {
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String ifMatch = request.getHeader(HttpHeaders.IF_MATCH);
+        if (ifMatch == null || ifMatch.trim().equals("*") || HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+        ExpectedVersionContextHolder.set(version(ifMatch.trim()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ExpectedVersionContextHolder.clear();
+    }
+
+    private int version(String ifMatch) {
+        String tag = ifMatch.startsWith("W/") ? ifMatch.substring(2) : ifMatch;
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        int separator = tag.indexOf('.');
+        try {
+            return Integer.parseInt(separator > 0 ? tag.substring(0, separator) : tag);
+        } catch (NumberFormatException e) {
+            throw new ListVersionMismatchException(ifMatch + " is not a list version");
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.doerapispring.web;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Date;
+
+public class ImportedTodoForm {
+    private final String task;
+    private final Date completedAt;
+
+    ImportedTodoForm(@JsonProperty("task") String task,
+                     @JsonProperty("completedAt") Date completedAt) {
+        this.task = task;
+        this.completedAt = completedAt;
+    }
+
+    public String getTask() {
+        return task;
+    }
+
+    public Date getCompletedAt() {
+        return completedAt;
+    }
+}
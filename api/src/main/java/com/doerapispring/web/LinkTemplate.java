@@ -0,0 +1,126 @@
+package com.doerapispring.web;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.core.AnnotationMappingDiscoverer;
+import org.springframework.hateoas.server.core.DummyInvocationUtils;
+import org.springframework.hateoas.server.core.MappingDiscoverer;
+import org.springframework.hateoas.server.core.MethodInvocation;
+import org.springframework.hateoas.server.core.MethodParameters;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+class LinkTemplate {
+    private static final MappingDiscoverer MAPPING_DISCOVERER = new AnnotationMappingDiscoverer(RequestMapping.class);
+    private static final Pattern PATH_VARIABLE = Pattern.compile("\\{[^}]+}");
+    private static final String BASE_URI_ATTRIBUTE = LinkTemplate.class.getName() + ".BASE_URI";
+
+    private final List<String> pathLiterals;
+    private final List<String> pathVariables;
+    private final List<String> requestParameters;
+
+    private LinkTemplate(List<String> pathLiterals, List<String> pathVariables, List<String> requestParameters) {
+        this.pathLiterals = pathLiterals;
+        this.pathVariables = pathVariables;
+        this.requestParameters = requestParameters;
+    }
+
+    static LinkTemplate of(Object invocationValue) {
+        MethodInvocation invocation = DummyInvocationUtils.getLastInvocationAware(invocationValue).getLastInvocation();
+        String mapping = MAPPING_DISCOVERER.getMapping(invocation.getTargetType(), invocation.getMethod());
+        String path = mapping == null ? "/" : mapping;
+        List<String> pathLiterals = new ArrayList<>();
+        List<String> pathVariables = new ArrayList<>();
+        Matcher pathVariable = PATH_VARIABLE.matcher(path);
+        int literalStart = 0;
+        while (pathVariable.find()) {
+            pathLiterals.add(path.substring(literalStart, pathVariable.start()));
+            pathVariables.add(pathVariable.group());
+            literalStart = pathVariable.end();
+        }
+        pathLiterals.add(path.substring(literalStart));
+        List<String> requestParameters = new ArrayList<>();
+        for (MethodParameter parameter : MethodParameters.of(invocation.getMethod()).getParametersWith(RequestParam.class)) {
+            requestParameters.add(requestParameterName(parameter));
+        }
+        return new LinkTemplate(pathLiterals, pathVariables, requestParameters);
+    }
+
+    Link expand(Object... pathValues) {
+        return expandWithParameters(pathValues);
+    }
+
+    Link expandPath(Object... pathValues) {
+        return Link.of(path(pathValues).toString());
+    }
+
+    Link expandWithParameters(Object[] pathValues, Object... parameterValues) {
+        StringBuilder href = path(pathValues);
+        char separator = '?';
+        List<String> absentParameters = new ArrayList<>();
+        for (int i = 0; i < requestParameters.size(); i++) {
+            Object value = i < parameterValues.length ? parameterValues[i] : null;
+            if (value == null) {
+                absentParameters.add(requestParameters.get(i));
+                continue;
+            }
+            href.append(separator)
+                .append(requestParameters.get(i))
+                .append('=')
+                .append(UriUtils.encodeQueryParam(value.toString(), StandardCharsets.UTF_8));
+            separator = '&';
+        }
+        if (!absentParameters.isEmpty()) {
+            href.append('{').append(separator).append(String.join(",", absentParameters)).append('}');
+        }
+        return Link.of(href.toString());
+    }
+
+    private StringBuilder path(Object[] pathValues) {
+        StringBuilder href = new StringBuilder(baseUri());
+        for (int i = 0; i < pathVariables.size(); i++) {
+            href.append(pathLiterals.get(i));
+            if (i < pathValues.length) {
+                href.append(UriUtils.encodePath(pathValues[i].toString(), StandardCharsets.UTF_8));
+            } else {
+                href.append(pathVariables.get(i));
+            }
+        }
+        return href.append(pathLiterals.get(pathVariables.size()));
+    }
+
+    // Worked out from the current request the first time a link is expanded for it
+    private static String baseUri() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return "";
+        }
+        String baseUri = (String) requestAttributes.getAttribute(BASE_URI_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (baseUri == null) {
+            baseUri = ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString();
+            requestAttributes.setAttribute(BASE_URI_ATTRIBUTE, baseUri, RequestAttributes.SCOPE_REQUEST);
+        }
+        return baseUri;
+    }
+
+    private static String requestParameterName(MethodParameter parameter) {
+        RequestParam requestParam = parameter.getParameterAnnotation(RequestParam.class);
+        if (requestParam != null && !requestParam.value().isEmpty()) {
+            return requestParam.value();
+        }
+        if (requestParam != null && !requestParam.name().isEmpty()) {
+            return requestParam.name();
+        }
+        return parameter.getParameterName();
+    }
+}
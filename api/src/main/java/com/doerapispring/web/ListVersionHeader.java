@@ -0,0 +1,8 @@
+package com.doerapispring.web;
+
+public class ListVersionHeader {
+    public static final String NAME = "List-Version";
+
+    private ListVersionHeader() {
+    }
+}
@@ -0,0 +1,6 @@
+package com.doerapispring.web;
+
+public enum MoveLinks {
+    EACH,
+    TEMPLATED
+}
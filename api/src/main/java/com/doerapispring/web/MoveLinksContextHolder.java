@@ -0,0 +1,22 @@
+package com.doerapispring.web;
+
+import java.util.Optional;
+
+public class MoveLinksContextHolder {
+    private static final ThreadLocal<MoveLinks> moveLinks = new ThreadLocal<>();
+
+    private MoveLinksContextHolder() {
+    }
+
+    public static Optional<MoveLinks> get() {
+        return Optional.ofNullable(moveLinks.get());
+    }
+
+    public static void set(MoveLinks value) {
+        moveLinks.set(value);
+    }
+
+    public static void clear() {
+        moveLinks.remove();
+    }
+}
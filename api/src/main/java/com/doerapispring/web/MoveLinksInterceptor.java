@@ -0,0 +1,51 @@
+package com.doerapispring.web;
+
+import com.doerapispring.domain.DomainException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+public class MoveLinksInterceptor implements HandlerInterceptor {
+    private static final String MOVES = "moves";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        Optional.ofNullable(request.getParameter(MOVES))
+            .map(Optional::of)
+            .orElseGet(() -> acceptedMediaTypes(request).stream()
+                .map(mediaType -> mediaType.getParameter(MOVES))
+                .filter(moves -> moves != null)
+                .findFirst())
+            .ifPresent(moves -> MoveLinksContextHolder.set(moveLinks(moves)));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        MoveLinksContextHolder.clear();
+    }
+
+    private List<MediaType> acceptedMediaTypes(HttpServletRequest request) {
+        try {
+            return MediaType.parseMediaTypes(request.getHeader(HttpHeaders.ACCEPT));
+        } catch (InvalidMediaTypeException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    private MoveLinks moveLinks(String moves) {
+        try {
+            return MoveLinks.valueOf(moves.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new DomainException(moves + " is not a kind of move link");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+-- Concurrent appends could previously write the same version twice, so renumber each list's events before keying on version
+UPDATE list_events
+SET version = renumbered_list_events.version
+FROM (
+    SELECT ctid, ROW_NUMBER() OVER (PARTITION BY user_id, list_id ORDER BY version ASC, created_at ASC) - 1 AS version
+    FROM list_events
+) AS renumbered_list_events
+WHERE list_events.ctid = renumbered_list_events.ctid
+AND list_events.version <> renumbered_list_events.version;
+
+ALTER TABLE ONLY list_events
+    ADD CONSTRAINT list_events_pkey PRIMARY KEY (user_id, list_id, version);
+
+ALTER TABLE todo_lists ADD COLUMN version integer NOT NULL DEFAULT -1;
+
+UPDATE todo_lists
+SET version = COALESCE((
+    SELECT MAX(list_events.version)
+    FROM list_events
+    WHERE list_events.user_id = todo_lists.user_id
+    AND list_events.list_id = todo_lists.list_id
+    AND list_events.created_at <= todo_lists.created_at
+), -1);
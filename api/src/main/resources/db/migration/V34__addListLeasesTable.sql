@@ -0,0 +1,10 @@
+CREATE TABLE list_leases (
+    user_id varchar NOT NULL,
+    list_id varchar NOT NULL,
+    owner varchar NOT NULL,
+    owner_address varchar NOT NULL,
+    expires_at timestamp without time zone NOT NULL,
+    CONSTRAINT list_leases_pkey PRIMARY KEY (user_id, list_id)
+);
+
+CREATE INDEX list_leases_owner_index ON list_leases (owner);
@@ -0,0 +1,10 @@
+CREATE TABLE completed_todos (
+    user_id varchar NOT NULL,
+    list_id varchar NOT NULL,
+    version integer NOT NULL,
+    task varchar NOT NULL,
+    completed_at timestamp with time zone NOT NULL,
+    CONSTRAINT completed_todos_pkey PRIMARY KEY (user_id, list_id, version)
+);
+
+CREATE INDEX completed_todos_page_index ON completed_todos (user_id, list_id, completed_at DESC, version DESC);
@@ -0,0 +1,28 @@
+package com.doerapispring.domain
+
+import java.util.Date
+
+import scala.util.Try
+
+case class CompletedTodoPage(completedTodos: List[CompletedTodo],
+                             next: Option[CompletedTodoCursor])
+
+object CompletedTodoPage {
+  val DefaultSize: Int = 50
+  val MaxSize: Int = 200
+}
+
+// Points just past the last completed todo of a page. Todos completed at the same instant are told apart by the version of their event
+case class CompletedTodoCursor(completedAt: Date, version: Int) {
+  def token: String = s"${completedAt.getTime}.$version"
+}
+
+object CompletedTodoCursor {
+  def parse(token: String): Option[CompletedTodoCursor] = {
+    token.split("\\.", 2) match {
+      case Array(completedAt, version) =>
+        Try(CompletedTodoCursor(new Date(completedAt.toLong), version.toInt)).toOption
+      case _ => None
+    }
+  }
+}
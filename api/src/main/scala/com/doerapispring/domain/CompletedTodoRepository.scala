@@ -0,0 +1,5 @@
+package com.doerapispring.domain
+
+trait CompletedTodoRepository {
+    def findPage(userId: UserId, listId: ListId, before: Option[CompletedTodoCursor], limit: Int): CompletedTodoPage
+}
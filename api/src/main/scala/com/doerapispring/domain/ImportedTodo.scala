@@ -0,0 +1,20 @@
+package com.doerapispring.domain
+
+import java.util.Date
+
+import com.doerapispring.domain.events.{DeferredTodoAddedEvent, TodoCompletedEvent, TodoListEvent}
+
+case class ImportedTodo(task: String, completedAt: Option[Date])
+
+object ImportedTodo {
+  // Imported todos are added to the end of the later list in the order given, and those already done are completed straight after being added
+  def events(todoList: TodoListModel, importedTodos: List[ImportedTodo]): List[TodoListEvent] = {
+    val (_, events) = importedTodos.foldLeft((todoList.todos.size, List[TodoListEvent]())) {
+      case ((size, events), ImportedTodo(task, Some(completedAt))) =>
+        (size, TodoCompletedEvent(size, completedAt) :: DeferredTodoAddedEvent(task) :: events)
+      case ((size, events), ImportedTodo(task, None)) =>
+        (size + 1, DeferredTodoAddedEvent(task) :: events)
+    }
+    events.reverse
+  }
+}
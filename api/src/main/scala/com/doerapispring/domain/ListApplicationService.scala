@@ -1,18 +1,28 @@
 package com.doerapispring.domain
 
+import java.util.function.Consumer
+
 import com.doerapispring.domain.events.TodoListEvent
 
 trait ListApplicationService {
-  def performOperation(user: User, listId: ListId, event: TodoListEvent): TodoListModel
+  def performOperation(user: User, listId: ListId, event: TodoListEvent): Versioned[TodoListModel]
+
+  def importTodos(user: User, listId: ListId, importedTodos: List[ImportedTodo]): Versioned[TodoListModel]
 
   def getDefault(user: User): TodoListModel
 
-  def getCompleted(user: User, listId: ListId): List[CompletedTodo]
+  def getCompleted(user: User, listId: ListId, before: Option[String], limit: Int): CompletedTodoPage
 
   def get(user: User, listId: ListId): TodoListModel
 
+  def getVersioned(user: User, listId: ListId): Versioned[TodoListModel]
+
+  def getVersion(user: User, listId: ListId): Int
+
   def getAll(user: User): List[TodoList]
 
+  def exportHistory(user: User, consumer: Consumer[ListHistoryEntry]): Unit
+
   def create(user: User, name: String): Unit
 
   def setDefault(user: User, listId: ListId): Unit
@@ -0,0 +1,11 @@
+package com.doerapispring.domain
+
+import java.util.Date
+
+import com.doerapispring.domain.events.TodoListEvent
+
+sealed trait ListHistoryEntry
+
+case class ListHistoryState(listId: ListId, name: String, todoListModel: Versioned[TodoListModel]) extends ListHistoryEntry
+
+case class ListHistoryEvent(listId: ListId, version: Int, createdAt: Date, todoListEvent: TodoListEvent) extends ListHistoryEntry
@@ -0,0 +1,6 @@
+package com.doerapispring.domain
+
+trait ListHistoryRepository {
+    // Hands over the list's events in version order as they are read, rather than collecting them first
+    def forEachEvent(userId: UserId, listId: ListId, consumer: ListHistoryEvent => Unit): Unit
+}
@@ -0,0 +1,8 @@
+package com.doerapispring.domain
+
+trait ListOwnership {
+    @throws[ListOwnedElsewhereException]
+    def claim(userId: UserId, listId: ListId): Option[Versioned[TodoListModel]]
+
+    def produced(userId: UserId, listId: ListId, todoListModel: Option[Versioned[TodoListModel]]): Unit
+}
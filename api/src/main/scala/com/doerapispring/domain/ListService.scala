@@ -2,8 +2,10 @@ package com.doerapispring.domain
 
 import java.time.Clock
 import java.util.Date
+import java.util.function.Consumer
 
 import com.doerapispring.domain.events.TodoListEvent
+import io.micrometer.core.instrument.MeterRegistry
 import org.springframework.stereotype.Service
 
 import scala.jdk.CollectionConverters._
@@ -12,38 +14,64 @@ import scala.jdk.CollectionConverters._
 class ListService(val todoListRepository: OwnedObjectRepository[TodoList, UserId, ListId],
                   val todoListFactory: TodoListFactory,
                   val userRepository: ObjectRepository[User, UserId],
-                  val todoListModelRepository: OwnedObjectReadRepository[TodoListModel, UserId, ListId],
+                  val todoListModelRepository: OwnedObjectVersionedReadRepository[TodoListModel, UserId, ListId],
                   val clock: Clock,
-                  val domainEventPublisher: DomainEventPublisher[TodoListModel, TodoListEvent, UserId, ListId],
                   val todoListEventRepository: OwnedObjectWriteRepository[TodoListEvent, UserId, ListId],
-                  val todoListModelSnapshotRepository: OwnedObjectWriteRepository[Snapshot[TodoListModel], UserId, ListId])
+                  val todoListModelSnapshotRepository: OwnedObjectWriteRepository[Snapshot[TodoListModel], UserId, ListId],
+                  val todoListCommandExecutor: TodoListCommandExecutor,
+                  val completedTodoRepository: CompletedTodoRepository,
+                  val listHistoryRepository: ListHistoryRepository,
+                  meterRegistry: MeterRegistry)
   extends ListApplicationService {
 
+  private val operationTimer = new OperationTimer(meterRegistry, "list")
+
   override def performOperation(user: User,
                                 listId: ListId,
-                                event: TodoListEvent): TodoListModel = {
-    todoListModelRepository.find(user.getUserId, listId)
-      .map(todoList => TodoListModel.applyEvent(todoList, event))
-      .map(todoList => domainEventPublisher.publish(todoList, event, user.getUserId, listId))
-      .get
+                                event: TodoListEvent): Versioned[TodoListModel] = {
+    operationTimer.record(event) {
+      todoListCommandExecutor.perform(user.getUserId, listId, event)
+    }
+  }
+
+  override def importTodos(user: User, listId: ListId, importedTodos: List[ImportedTodo]): Versioned[TodoListModel] = {
+    todoListCommandExecutor.performAll(user.getUserId, listId, todoListModel => ImportedTodo.events(todoListModel, importedTodos))
   }
 
   override def getDefault(user: User): TodoListModel = {
     todoListModelRepository.find(user.getUserId, user.getDefaultListId).get
   }
 
-  override def getCompleted(user: User, listId: ListId): List[CompletedTodo] = {
-    todoListModelRepository.find(user.getUserId, listId).get.completedTodos
+  override def getCompleted(user: User, listId: ListId, before: Option[String], limit: Int): CompletedTodoPage = {
+    val cursor = before.map(token => CompletedTodoCursor.parse(token).getOrElse(throw new InvalidCursorException(token)))
+    completedTodoRepository.findPage(user.getUserId, listId, cursor, Math.min(Math.max(limit, 1), CompletedTodoPage.MaxSize))
   }
 
   override def get(user: User, listId: ListId): TodoListModel = {
     todoListModelRepository.find(user.getUserId, listId).get
   }
 
+  override def getVersioned(user: User, listId: ListId): Versioned[TodoListModel] = {
+    todoListModelRepository.findVersioned(user.getUserId, listId).get
+  }
+
+  override def getVersion(user: User, listId: ListId): Int = {
+    todoListModelRepository.findVersion(user.getUserId, listId).get
+  }
+
   override def getAll(user: User): List[TodoList] = {
     todoListRepository.findAll(user.getUserId).asScala.toList
   }
 
+  // Each list's current state comes first, followed by every event that produced it
+  override def exportHistory(user: User, consumer: Consumer[ListHistoryEntry]): Unit = {
+    getAll(user).foreach(todoList => {
+      todoListModelRepository.findVersioned(user.getUserId, todoList.getListId)
+        .foreach(todoListModel => consumer.accept(ListHistoryState(todoList.getListId, todoList.getName, todoListModel)))
+      listHistoryRepository.forEachEvent(user.getUserId, todoList.getListId, listHistoryEvent => consumer.accept(listHistoryEvent))
+    })
+  }
+
   override def create(user: User, name: String): Unit = {
     val listId = todoListRepository.nextIdentifier
     val todoList = todoListFactory.todoList(user.getUserId, listId, name)
@@ -51,7 +79,7 @@ class ListService(val todoListRepository: OwnedObjectRepository[TodoList, UserId
     todoListModelSnapshotRepository.save(
       user.getUserId,
       listId,
-      Snapshot(TodoListModel(List(), List(), new Date(0L), 0), Date.from(clock.instant())))
+      Snapshot(TodoListModel(Vector(), new Date(0L), 0), Date.from(clock.instant()), Snapshot.InitialVersion))
   }
 
   override def setDefault(user: User, listId: ListId): Unit = {
@@ -0,0 +1,21 @@
+package com.doerapispring.domain
+
+import java.util.concurrent.ConcurrentHashMap
+
+import com.doerapispring.domain.events.TodoListEvent
+import io.micrometer.core.instrument.{MeterRegistry, Timer}
+
+// Times a service's operations, tagged by the kind of event each one performs
+class OperationTimer(meterRegistry: MeterRegistry, service: String) {
+  private val timers = new ConcurrentHashMap[Class[_ <: TodoListEvent], Timer]()
+
+  def record[T](event: TodoListEvent)(operation: => T): T = {
+    timers.computeIfAbsent(event.getClass, eventClass => Timer.builder("doer.operations")
+      .description("Time taken to perform an operation on a list, from loading it to its event being published")
+      .tag("service", service)
+      .tag("operation", eventClass.getSimpleName)
+      .publishPercentileHistogram()
+      .register(meterRegistry))
+      .recordCallable(() => operation)
+  }
+}
@@ -0,0 +1,5 @@
+package com.doerapispring.domain
+
+trait OwnedObjectVersionedCache[T, OwnerId, Id] {
+  def written(ownerId: OwnerId, id: Id, versioned: Versioned[T]): Unit
+}
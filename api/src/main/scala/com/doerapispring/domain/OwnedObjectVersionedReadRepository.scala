@@ -0,0 +1,17 @@
+package com.doerapispring.domain
+
+trait OwnedObjectVersionedReadRepository[T, OwnerId, Id] extends OwnedObjectReadRepository[T, OwnerId, Id] {
+  override def find(ownerId: OwnerId, id: Id): Option[T] = {
+    findVersioned(ownerId, id).map(versioned => versioned.model)
+  }
+
+  def findVersioned(ownerId: OwnerId, id: Id): Option[Versioned[T]]
+
+  def findVersioned(ownerId: OwnerId, id: Id, since: Versioned[T]): Option[Versioned[T]] = {
+    findVersioned(ownerId, id)
+  }
+
+  def findVersion(ownerId: OwnerId, id: Id): Option[Int] = {
+    findVersioned(ownerId, id).map(versioned => versioned.version)
+  }
+}
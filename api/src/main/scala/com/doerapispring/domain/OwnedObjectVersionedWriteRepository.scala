@@ -0,0 +1,6 @@
+package com.doerapispring.domain
+
+trait OwnedObjectVersionedWriteRepository[T, OwnerId, Id] {
+  @throws[VersionConflictException]
+  def append(ownerId: OwnerId, id: Id, expectedVersion: Int, models: List[T]): Int
+}
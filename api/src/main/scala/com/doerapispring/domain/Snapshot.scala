@@ -2,4 +2,8 @@ package com.doerapispring.domain
 
 import java.util.Date
 
-case class Snapshot[T](model: T, createdAt: Date)
+case class Snapshot[T](model: T, createdAt: Date, version: Int)
+
+object Snapshot {
+  val InitialVersion: Int = -1
+}
@@ -0,0 +1,5 @@
+package com.doerapispring.domain
+
+trait SnapshotTrigger[OwnerId, Id] {
+  def snapshotIfDue(ownerId: OwnerId, id: Id): Unit
+}
@@ -1,6 +1,7 @@
 package com.doerapispring.domain;
 
 import com.doerapispring.domain.events.TodoListEvent;
+import scala.collection.immutable.List;
 import scala.util.Try;
 
 import java.util.function.BiFunction;
@@ -8,9 +9,15 @@ import java.util.function.Function;
 import java.util.function.Supplier;
 
 public interface TodoApplicationService {
-    TodoListModel performOperation(
+    Versioned<TodoListModel> performOperation(
             User user,
             ListId listId,
             TodoListEvent event
     );
+
+    Versioned<TodoListModel> performOperations(
+            User user,
+            ListId listId,
+            List<TodoListEvent> events
+    );
 }
\ No newline at end of file
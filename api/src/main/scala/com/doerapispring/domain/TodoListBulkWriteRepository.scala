@@ -0,0 +1,9 @@
+package com.doerapispring.domain
+
+import com.doerapispring.domain.events.TodoListEvent
+
+trait TodoListBulkWriteRepository {
+  // Appends all of the events or none of them, along with a snapshot of the model they produce, and returns the list's new version
+  @throws[VersionConflictException]
+  def appendAndSnapshot(userId: UserId, listId: ListId, expectedVersion: Int, todoListEvents: List[TodoListEvent], todoListModel: TodoListModel): Int
+}
@@ -0,0 +1,92 @@
+package com.doerapispring.domain
+
+import java.util.Optional
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.locks.ReentrantLock
+
+import com.doerapispring.domain.events.TodoListEvent
+import org.springframework.stereotype.Component
+
+import scala.jdk.OptionConverters._
+
+@Component
+class TodoListCommandExecutor(private val todoListRepository: OwnedObjectVersionedReadRepository[TodoListModel, UserId, ListId],
+                              private val domainEventPublisher: DomainEventPublisher[TodoListModel, TodoListEvent, UserId, ListId],
+                              private val todoListBulkWriteRepository: TodoListBulkWriteRepository,
+                              private val versionConflictRetryPolicy: VersionConflictRetryPolicy,
+                              private val listOwnership: Optional[ListOwnership]) {
+
+  // produced is only read and written while holding the lock
+  private class Mailbox {
+    val lock = new ReentrantLock()
+    var holders = 0
+    var produced: Option[Versioned[TodoListModel]] = None
+  }
+
+  private val mailboxes = new ConcurrentHashMap[(UserId, ListId), Mailbox]()
+
+  def perform(userId: UserId, listId: ListId, event: TodoListEvent): Versioned[TodoListModel] = {
+    exclusively(userId, listId, mailbox => versionConflictRetryPolicy.retry(() => {
+      expectVersion(userId, listId, mailbox)
+      val todoList = mailbox.produced.orElse(todoListRepository.findVersioned(userId, listId)).get
+      produced(userId, listId, mailbox, None)
+      val recorded = TodoListModel.record(todoList.model, event)
+      val todoListModel = Versioned(
+        domainEventPublisher.publish(TodoListModel.applyEvent(todoList.model, recorded), recorded, userId, listId, todoList.version),
+        todoList.version + 1)
+      produced(userId, listId, mailbox, Some(todoListModel))
+      todoListModel
+    }))
+  }
+
+  def performAll(userId: UserId, listId: ListId, events: TodoListModel => List[TodoListEvent]): Versioned[TodoListModel] = {
+    exclusively(userId, listId, mailbox => versionConflictRetryPolicy.retry(() => {
+      expectVersion(userId, listId, mailbox)
+      val todoList = mailbox.produced.orElse(todoListRepository.findVersioned(userId, listId)).get
+      produced(userId, listId, mailbox, None)
+      val (todoListModel, recorded) = events(todoList.model).foldLeft((todoList.model, List[TodoListEvent]())) {
+        case ((todoListModel, recorded), event) =>
+          val recordedEvent = TodoListModel.record(todoListModel, event)
+          (TodoListModel.applyEvent(todoListModel, recordedEvent), recordedEvent :: recorded)
+      }
+      val version = todoListBulkWriteRepository.appendAndSnapshot(userId, listId, todoList.version, recorded.reverse, todoListModel)
+      produced(userId, listId, mailbox, Some(Versioned(todoListModel, version)))
+      Versioned(todoListModel, version)
+    }))
+  }
+
+  private def exclusively(userId: UserId, listId: ListId, command: Mailbox => Versioned[TodoListModel]): Versioned[TodoListModel] = {
+    val key = (userId, listId)
+    val mailbox = mailboxes.compute(key, (_, existing) => {
+      val joined = Option(existing).getOrElse(new Mailbox)
+      joined.holders += 1
+      joined
+    })
+    mailbox.lock.lock()
+    try {
+      val owned = listOwnership.toScala.flatMap(_.claim(userId, listId))
+      mailbox.produced = mailbox.produced.orElse(owned)
+      command(mailbox)
+    } finally {
+      mailbox.lock.unlock()
+      mailboxes.computeIfPresent(key, (_, joined) => {
+        joined.holders -= 1
+        if (joined.holders == 0) null else joined
+      })
+    }
+  }
+
+  private def expectVersion(userId: UserId, listId: ListId, mailbox: Mailbox): Unit = {
+    ExpectedVersionContextHolder.get().ifPresent(expected => {
+      val version = mailbox.produced.map(_.version).orElse(todoListRepository.findVersion(userId, listId))
+      if (!version.contains(expected.intValue)) {
+        throw new ListVersionMismatchException(s"list is at version ${version.getOrElse("none")}, not $expected")
+      }
+    })
+  }
+
+  private def produced(userId: UserId, listId: ListId, mailbox: Mailbox, todoListModel: Option[Versioned[TodoListModel]]): Unit = {
+    mailbox.produced = todoListModel
+    listOwnership.ifPresent(_.produced(userId, listId, todoListModel))
+  }
+}
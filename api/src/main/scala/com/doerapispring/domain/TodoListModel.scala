@@ -1,11 +1,13 @@
 package com.doerapispring.domain
 
-import java.util.{Calendar, Date, TimeZone}
+import java.time.temporal.ChronoUnit
+import java.util.Date
 
 import com.doerapispring.domain.events._
 
-case class TodoListModel(todos: List[Todo] = List(),
-                         completedTodos: List[CompletedTodo] = List(),
+import scala.collection.IndexedSeqView
+
+case class TodoListModel(todos: Vector[Todo] = Vector(),
                          lastUnlockedAt: Date = new Date(0L),
                          demarcationIndex: Integer = 0)
 
@@ -15,57 +17,70 @@ case class TodoListModelCapabilities(add: Option[String => TodoAddedEvent],
                                      escalate: Option[EscalatedEvent],
                                      pull: Option[PulledEvent],
                                      unlock: Option[Date => UnlockedEvent],
-                                     todoCapabilities: List[TodoCapabilities],
-                                     deferredTodoCapabilities: List[TodoCapabilities])
+                                     todoCapabilities: IndexedSeqView[TodoCapabilities],
+                                     deferredTodoCapabilities: IndexedSeqView[TodoCapabilities])
+
+case class TodoCapabilities(index: Int, moveTargets: Range) {
+  def update(task: String): TodoUpdatedEvent = TodoUpdatedEvent(index, task)
+
+  def complete(completedAt: Date): TodoCompletedEvent = TodoCompletedEvent(index, completedAt)
 
-case class TodoCapabilities(update: String => TodoUpdatedEvent,
-                            complete: Date => TodoCompletedEvent,
-                            delete: TodoDeletedEvent,
-                            move: List[TodoMovedEvent])
+  def delete: TodoDeletedEvent = TodoDeletedEvent(index)
+
+  def move: IndexedSeqView[TodoMovedEvent] = moveTargets.view.map(targetIndex => TodoMovedEvent(index, targetIndex))
+}
 
 object TodoListModel {
   val MaxSize: Int = 2
+  private val UnlockDurationMs: Long = 1800000L
+  private val DayMs: Long = 86400000L
 
   def capabilities(todoList: TodoListModel, now: Date): TodoListModelCapabilities = {
-    val todos = getTodos(todoList)
-    val deferredTodos = getDeferredTodos(todoList, now)
+    val size = todoList.todos.size
+    val todosSize = Math.min(todoList.demarcationIndex, size)
+    val deferredTodosSize = if (isLocked(todoList, now)) 0 else size - todosSize
+    val todos = 0 until todosSize
+    val deferredTodos = todosSize until todosSize + deferredTodosSize
+    val full = todosSize >= MaxSize
+    val hasDeferredTodos = size > todosSize
     TodoListModelCapabilities(
-      add = Option.unless(isFull(todoList))((task: String) => TodoAddedEvent(task)),
-      displace = Option.when(isFull(todoList))((task: String) => TodoDisplacedEvent(task)),
+      add = Option.unless(full)((task: String) => TodoAddedEvent(task)),
+      displace = Option.when(full)((task: String) => TodoDisplacedEvent(task)),
       addDeferred = (task: String) => DeferredTodoAddedEvent(task),
-      escalate = Option.when(isAbleToBeEscalated(todoList))(EscalatedEvent()),
-      pull = Option.when(isAbleToBePulled(todoList))(PulledEvent()),
+      escalate = Option.when(full && hasDeferredTodos)(EscalatedEvent()),
+      pull = Option.when(!full && hasDeferredTodos)(PulledEvent()),
       unlock = Option.when(isAbleToBeUnlocked(todoList, now))((unlockedAt: Date) => UnlockedEvent(unlockedAt)),
-      todoCapabilities = todos.map(todo => {
-        val index = todoList.todos.indexOf(todo)
-        TodoCapabilities(
-          update = (task: String) => TodoUpdatedEvent(index, task),
-          complete = (completedAt: Date) => TodoCompletedEvent(index, completedAt),
-          delete = TodoDeletedEvent(index),
-          move = todos
-            .map(todo => todoList.todos.indexOf(todo))
-            .map(targetIndex => TodoMovedEvent(index, targetIndex)))
-      }),
-      deferredTodoCapabilities = deferredTodos.map(todo => {
-        val index = todoList.todos.indexOf(todo)
-        TodoCapabilities(
-          update = (task: String) => TodoUpdatedEvent(index, task),
-          complete = (completedAt: Date) => TodoCompletedEvent(index, completedAt),
-          delete = TodoDeletedEvent(index),
-          move = deferredTodos
-            .map(deferredTodo => todoList.todos.indexOf(deferredTodo))
-            .map(targetIndex => TodoMovedEvent(index, targetIndex)))
-      })
+      todoCapabilities = todos.view.map(index => TodoCapabilities(index, todos)),
+      deferredTodoCapabilities = deferredTodos.view.map(index => TodoCapabilities(index, deferredTodos))
     )
   }
 
+  def permits(todoList: TodoListModel, todoListEvent: TodoListEvent, now: Date): Boolean = {
+    val listCapabilities = capabilities(todoList, now)
+    def todo(index: Int): Option[TodoCapabilities] =
+      (listCapabilities.todoCapabilities ++ listCapabilities.deferredTodoCapabilities).find(todo => todo.index == index)
+    todoListEvent match {
+      case TodoAddedEvent(_) => listCapabilities.add.isDefined
+      case TodoDisplacedEvent(_) => listCapabilities.displace.isDefined
+      case DeferredTodoAddedEvent(_) => true
+      case EscalatedEvent() => listCapabilities.escalate.isDefined
+      case PulledEvent() => listCapabilities.pull.isDefined
+      case UnlockedEvent(_) => listCapabilities.unlock.isDefined
+      case TodoUpdatedEvent(index, _) => todo(index).isDefined
+      case TodoCompletedEvent(index, _, _) => todo(index).isDefined
+      case TodoDeletedEvent(index) => todo(index).isDefined
+      case TodoMovedEvent(index, targetIndex) => todo(index).exists(todo => todo.moveTargets.contains(targetIndex))
+      case _ => false
+    }
+  }
+
   //  TODO: From the controller, produce the TodoListEvent from the capabilities object
   //  so this method doesn't have to guard against the capabilities that are not
   //  always possible - those where the capability is optional (of Option type)
   def applyEvent(todoList: TodoListModel, todoListEvent: TodoListEvent): TodoListModel = {
     todoListEvent match {
       case TodoUpdatedEvent(index, task) => update(todoList, index, task)
-      case TodoCompletedEvent(index, completedAt) => complete(todoList, index, completedAt)
+      case TodoCompletedEvent(index, completedAt, _) => complete(todoList, index, completedAt)
       case TodoDisplacedEvent(task) => displace(todoList, task)
       case TodoDeletedEvent(index) => delete(todoList, index)
       case TodoAddedEvent(task) => add(todoList, task)
@@ -78,6 +93,14 @@ object TodoListModel {
     }
   }
 
+  def record(todoList: TodoListModel, todoListEvent: TodoListEvent): TodoListEvent = {
+    todoListEvent match {
+      case todoCompletedEvent: TodoCompletedEvent =>
+        todoCompletedEvent.copy(task = todoList.todos.lift(todoCompletedEvent.index).map(todo => todo.task))
+      case _ => todoListEvent
+    }
+  }
+
   def add(todoList: TodoListModel, task: String): TodoListModel = {
     val todo = Todo(task)
     todoList.copy(todos = todo +: todoList.todos, demarcationIndex = todoList.demarcationIndex + 1)
@@ -90,7 +113,7 @@ object TodoListModel {
 
   def delete(todoList: TodoListModel, index: Int): TodoListModel = {
     val newDemarcationIndex: Int = if (index < todoList.demarcationIndex) todoList.demarcationIndex - 1 else todoList.demarcationIndex
-    todoList.copy(todos = todoList.todos.take(index) ++ todoList.todos.drop(index + 1), demarcationIndex = newDemarcationIndex)
+    todoList.copy(todos = removed(todoList.todos, index), demarcationIndex = newDemarcationIndex)
   }
 
   def displace(todoList: TodoListModel, task: String): TodoListModel = {
@@ -106,33 +129,22 @@ object TodoListModel {
 
   def complete(todoList: TodoListModel, index: Int, completedAt: Date): TodoListModel = {
     val newDemarcationIndex: Int = if (index < todoList.demarcationIndex) todoList.demarcationIndex - 1 else todoList.demarcationIndex
-    val todo = todoList.todos(index)
     todoList.copy(
-      todos = todoList.todos.take(index) ++ todoList.todos.drop(index + 1),
-      completedTodos = CompletedTodo(todo.task, completedAt) +: todoList.completedTodos,
+      todos = removed(todoList.todos, index),
       demarcationIndex = newDemarcationIndex)
   }
 
   def move(todoList: TodoListModel, index: Int, targetIndex: Int): TodoListModel = {
-    val sourceTodo: Todo = todoList.todos(index)
-    val targetTodo: Todo = todoList.todos(targetIndex)
-    val sourceTodoIndex = todoList.todos.indexOf(sourceTodo)
-    val targetTodoIndex = todoList.todos.indexOf(targetTodo)
-    sourceTodoIndex.compareTo(targetTodoIndex) match {
-      case 1 =>
-        todoList.copy(todos = todoList.todos.slice(0, targetTodoIndex) ::: sourceTodo :: todoList.todos.slice(targetTodoIndex, sourceTodoIndex) ::: todoList.todos.slice(sourceTodoIndex + 1, todoList.todos.size))
-      case -1 =>
-        todoList.copy(todos = todoList.todos.slice(0, sourceTodoIndex) ::: todoList.todos.slice(sourceTodoIndex + 1, targetTodoIndex + 1) ::: List(sourceTodo) ::: todoList.todos.slice(targetTodoIndex + 1, todoList.todos.size))
-      case _ => todoList
-    }
+    if (index == targetIndex) todoList
+    else todoList.copy(todos = inserted(removed(todoList.todos, index), targetIndex, todoList.todos(index)))
   }
 
-  def getTodos(todoList: TodoListModel): List[Todo] = {
+  def getTodos(todoList: TodoListModel): Vector[Todo] = {
     todoList.todos.slice(0, todoList.demarcationIndex)
   }
 
-  def getDeferredTodos(todoList: TodoListModel, unlockTime: Date): List[Todo] = {
-    if (isLocked(todoList, unlockTime)) List.empty else todoList.todos.slice(todoList.demarcationIndex, todoList.todos.size)
+  def getDeferredTodos(todoList: TodoListModel, unlockTime: Date): Vector[Todo] = {
+    if (isLocked(todoList, unlockTime)) Vector.empty else todoList.todos.slice(todoList.demarcationIndex, todoList.todos.size)
   }
 
   def unlock(todoList: TodoListModel, unlockTime: Date): TodoListModel = {
@@ -140,46 +152,40 @@ object TodoListModel {
   }
 
   def unlockDurationMs(todoList: TodoListModel, compareTime: Date): Long = {
-    val unlockDuration = 1800000L
-    val duration = todoList.lastUnlockedAt.toInstant.toEpochMilli + unlockDuration - compareTime.toInstant.toEpochMilli
+    val duration = todoList.lastUnlockedAt.getTime + UnlockDurationMs - compareTime.getTime
     if (duration > 0) duration else 0L
   }
 
-  def pull(todoList: TodoListModel): TodoListModel = {
-    todoList.copy(demarcationIndex = Math.min(todoList.todos.size, MaxSize))
+  def unchangedUntil(todoList: TodoListModel, now: Date): Date = {
+    if (isLocked(todoList, now)) Date.from(now.toInstant.truncatedTo(ChronoUnit.DAYS).plus(1, ChronoUnit.DAYS))
+    else new Date(todoList.lastUnlockedAt.getTime + UnlockDurationMs)
   }
 
-  private def isAbleToBePulled(todoList: TodoListModel) = {
-    !isFull(todoList) && todoList.todos.slice(todoList.demarcationIndex, todoList.todos.size).nonEmpty
+  def pull(todoList: TodoListModel): TodoListModel = {
+    todoList.copy(demarcationIndex = Math.min(todoList.todos.size, MaxSize))
   }
 
   def escalate(todoList: TodoListModel): TodoListModel = {
-    val first :: second :: third :: rest = todoList.todos
-    todoList.copy(todos = first :: third :: second :: rest)
+    todoList.copy(todos = todoList.todos.updated(1, todoList.todos(2)).updated(2, todoList.todos(1)))
   }
 
-  private def isAbleToBeEscalated(todoListValue: TodoListModel): Boolean = {
-    isFull(todoListValue) && todoListValue.todos.slice(todoListValue.demarcationIndex, todoListValue.todos.size).nonEmpty
+  private def removed(todos: Vector[Todo], index: Int): Vector[Todo] = {
+    if (index < todos.size / 2) todos.drop(index + 1).prependedAll(todos.take(index))
+    else todos.take(index).appendedAll(todos.drop(index + 1))
   }
 
-  private def isAbleToBeUnlocked(todoList: TodoListModel, unlockTime: Date) = {
-    val calendar = Calendar.getInstance
-    calendar.setTimeZone(TimeZone.getTimeZone("UTC"))
-    calendar.setTime(unlockTime)
-    calendar.set(Calendar.HOUR_OF_DAY, 0)
-    calendar.set(Calendar.MINUTE, 0)
-    calendar.set(Calendar.SECOND, 0)
-    calendar.set(Calendar.MILLISECOND, 0)
-    val isAbleToBeUnlocked = isLocked(todoList, unlockTime) && todoList.lastUnlockedAt.before(calendar.getTime)
-    isAbleToBeUnlocked
+  private def inserted(todos: Vector[Todo], index: Int, todo: Todo): Vector[Todo] = {
+    if (index < todos.size / 2) todos.drop(index).prepended(todo).prependedAll(todos.take(index))
+    else todos.take(index).appended(todo).appendedAll(todos.drop(index))
   }
 
-  private def isFull(todoList: TodoListModel): Boolean = {
-    todoList.todos.slice(0, todoList.demarcationIndex).size >= MaxSize
+  private def isAbleToBeUnlocked(todoList: TodoListModel, unlockTime: Date) = {
+    val startOfDay = Math.floorDiv(unlockTime.getTime, DayMs) * DayMs
+    isLocked(todoList, unlockTime) && todoList.lastUnlockedAt.getTime < startOfDay
   }
 
   private def isLocked(todoList: TodoListModel, unlockTime: Date) = {
-    todoList.lastUnlockedAt.before(Date.from(unlockTime.toInstant.minusSeconds(1800)))
+    todoList.lastUnlockedAt.getTime < unlockTime.getTime - UnlockDurationMs
   }
 
   private def alreadyExists(todoList: TodoListModel, task: String): Boolean = {
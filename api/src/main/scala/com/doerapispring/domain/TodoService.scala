@@ -1,18 +1,37 @@
 package com.doerapispring.domain
 
+import java.time.Clock
+import java.util.Date
+
 import com.doerapispring.domain.events.TodoListEvent
+import io.micrometer.core.instrument.MeterRegistry
 import org.springframework.stereotype.Service
 
 @Service
-class TodoService(private val todoListRepository: OwnedObjectReadRepository[TodoListModel, UserId, ListId],
-                  private val todoListEventRepository: OwnedObjectWriteRepository[TodoListEvent, UserId, ListId],
-                  private val domainEventPublisher: DomainEventPublisher[TodoListModel, TodoListEvent, UserId, ListId],
-                  private val todoRepository: IdentityGeneratingRepository[TodoId]) extends TodoApplicationService {
+class TodoService(private val todoListEventRepository: OwnedObjectWriteRepository[TodoListEvent, UserId, ListId],
+                  private val todoRepository: IdentityGeneratingRepository[TodoId],
+                  private val todoListCommandExecutor: TodoListCommandExecutor,
+                  private val clock: Clock,
+                  meterRegistry: MeterRegistry) extends TodoApplicationService {
+
+  private val operationTimer = new OperationTimer(meterRegistry, "todo")
+
+  override def performOperation(user: User, listId: ListId, event: TodoListEvent): Versioned[TodoListModel] = {
+    operationTimer.record(event) {
+      todoListCommandExecutor.perform(user.getUserId, listId, event)
+    }
+  }
 
-  override def performOperation(user: User, listId: ListId, event: TodoListEvent): TodoListModel = {
-    todoListRepository.find(user.getUserId, listId)
-      .map(todoList => TodoListModel.applyEvent(todoList, event))
-      .map(todoList => domainEventPublisher.publish(todoList, event, user.getUserId, listId))
-      .get
+  override def performOperations(user: User, listId: ListId, events: List[TodoListEvent]): Versioned[TodoListModel] = {
+    todoListCommandExecutor.performAll(user.getUserId, listId, todoListModel => {
+      val now = Date.from(clock.instant())
+      events.zipWithIndex.foldLeft(todoListModel) { case (todoListModel, (event, index)) =>
+        if (!TodoListModel.permits(todoListModel, event, now)) {
+          throw new DomainException(s"command ${index + 1} cannot be performed on the list as the commands before it leave it")
+        }
+        TodoListModel.applyEvent(todoListModel, event)
+      }
+      events
+    })
   }
 }
@@ -26,7 +26,7 @@ class UserService(val userRepository: ObjectRepository[User, UserId],
     todoListModelSnapshotRepository.save(
       user.getUserId,
       listId,
-      Snapshot(TodoListModel(List(), List(), new Date(0L), 0), Date.from(clock.instant())))
+      Snapshot(TodoListModel(Vector(), new Date(0L), 0), Date.from(clock.instant()), Snapshot.InitialVersion))
     user
   }
 
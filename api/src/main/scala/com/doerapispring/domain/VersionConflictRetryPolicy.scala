@@ -0,0 +1,44 @@
+package com.doerapispring.domain
+
+import java.time.Duration
+import java.util.concurrent.ThreadLocalRandom
+
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.stereotype.Component
+
+import scala.annotation.tailrec
+
+@Component
+class VersionConflictRetryPolicy(@Value("${doer.commands.max-attempts:5}") val maxAttempts: Int,
+                                 @Value("${doer.commands.retry-backoff:10ms}") val backoff: Duration) {
+
+  def retry[T](operation: () => T): T = attempt(operation, 1)
+
+  @tailrec
+  private def attempt[T](operation: () => T, attemptNumber: Int): T = {
+    val result = try {
+      Right(operation())
+    } catch {
+      case versionConflictException: VersionConflictException if attemptNumber < maxAttempts =>
+        Left(versionConflictException)
+    }
+    result match {
+      case Right(value) => value
+      case Left(versionConflictException) =>
+        backOff(attemptNumber, versionConflictException)
+        attempt(operation, attemptNumber + 1)
+    }
+  }
+
+  // Full jitter, up to an exponentially growing ceiling
+  private def backOff(attemptNumber: Int, versionConflictException: VersionConflictException): Unit = {
+    val ceilingMs = backoff.toMillis << Math.min(attemptNumber - 1, 16)
+    try {
+      Thread.sleep(ThreadLocalRandom.current().nextLong(ceilingMs + 1))
+    } catch {
+      case _: InterruptedException =>
+        Thread.currentThread().interrupt()
+        throw versionConflictException
+    }
+  }
+}
@@ -0,0 +1,3 @@
+package com.doerapispring.domain
+
+case class Versioned[T](model: T, version: Int)
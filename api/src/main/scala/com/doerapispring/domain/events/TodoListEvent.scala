@@ -35,7 +35,7 @@ case class UnlockedEvent(unlockedAt: Date) extends TodoListEvent
 
 case class TodoUpdatedEvent(index: Int, task: String) extends TodoListEvent
 
-case class TodoCompletedEvent(index: Int, completedAt: Date) extends TodoListEvent
+case class TodoCompletedEvent(index: Int, completedAt: Date, task: Option[String] = None) extends TodoListEvent
 
 case class TodoDisplacedEvent(task: String) extends TodoListEvent
 
@@ -0,0 +1,43 @@
+package com.doerapispring.messaging
+
+import com.doerapispring.domain._
+import com.doerapispring.domain.events.TodoListEvent
+import io.micrometer.core.instrument.{MeterRegistry, Timer}
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.context.annotation.Primary
+import org.springframework.stereotype.Component
+
+@Component
+@Primary
+class DurabilityRoutingDomainEventPublisher(private val springApplicationEventsDomainEventPublisher: SpringApplicationEventsDomainEventPublisher,
+                                            private val synchronousDomainEventPublisher: SynchronousDomainEventPublisher,
+                                            private val groupCommitDomainEventPublisher: GroupCommitDomainEventPublisher,
+                                            private val todoListModelCache: OwnedObjectVersionedCache[TodoListModel, UserId, ListId],
+                                            @Value("${doer.events.durability:SYNCHRONOUS}") val defaultDurability: Durability,
+                                            meterRegistry: MeterRegistry)
+  extends DomainEventPublisher[TodoListModel, TodoListEvent, UserId, ListId] {
+
+  private val publishers: Map[Durability, (DomainEventPublisher[TodoListModel, TodoListEvent, UserId, ListId], Timer)] =
+    Map(
+      Durability.FIRE_AND_FORGET -> springApplicationEventsDomainEventPublisher,
+      Durability.SYNCHRONOUS -> synchronousDomainEventPublisher,
+      Durability.GROUP_COMMIT -> groupCommitDomainEventPublisher)
+      .map { case (durability, publisher) =>
+        durability -> (publisher, Timer.builder("doer.events.publish")
+          .description("Time taken to publish a command's events, up to the point the durability mode acknowledges them")
+          .tag("durability", durability.name())
+          .publishPercentileHistogram()
+          .register(meterRegistry))
+      }
+
+  override def publish(todoListModel: TodoListModel, todoListEvent: TodoListEvent, userId: UserId, listId: ListId, expectedVersion: Int): TodoListModel = {
+    val durability = DurabilityContextHolder.get().orElse(defaultDurability)
+    val (publisher, timer) = publishers(durability)
+    val published = timer.recordCallable(() => publisher.publish(todoListModel, todoListEvent, userId, listId, expectedVersion))
+    // A fire and forget event may yet be dropped, so its model is only cached once the append is announced and read back
+    if (durability != Durability.FIRE_AND_FORGET) {
+      todoListModelCache.written(userId, listId, Versioned(published, expectedVersion + 1))
+    }
+    published
+  }
+}
@@ -0,0 +1,24 @@
+package com.doerapispring.messaging
+
+import java.util.concurrent.CompletionException
+
+import com.doerapispring.domain._
+import com.doerapispring.domain.events.TodoListEvent
+import com.doerapispring.storage.TodoListEventGroupCommitter
+import org.springframework.stereotype.Component
+
+@Component
+class GroupCommitDomainEventPublisher(private val todoListEventGroupCommitter: TodoListEventGroupCommitter,
+                                      private val snapshotTrigger: SnapshotTrigger[UserId, ListId])
+  extends DomainEventPublisher[TodoListModel, TodoListEvent, UserId, ListId] {
+
+  override def publish(todoListModel: TodoListModel, todoListEvent: TodoListEvent, userId: UserId, listId: ListId, expectedVersion: Int): TodoListModel = {
+    try {
+      todoListEventGroupCommitter.submit(userId, listId, expectedVersion, List(todoListEvent)).join()
+    } catch {
+      case completionException: CompletionException => throw completionException.getCause
+    }
+    snapshotTrigger.snapshotIfDue(userId, listId)
+    todoListModel
+  }
+}
@@ -3,4 +3,4 @@ package com.doerapispring.messaging
 import com.doerapispring.domain.events.{DomainEvent, TodoListEvent}
 import com.doerapispring.domain.{ListId, UserId}
 
-case class OwnedTodoListEvent(userId: UserId, listId: ListId, todoListEvent: TodoListEvent) extends DomainEvent
+case class OwnedTodoListEvent(userId: UserId, listId: ListId, todoListEvent: TodoListEvent, expectedVersion: Int) extends DomainEvent
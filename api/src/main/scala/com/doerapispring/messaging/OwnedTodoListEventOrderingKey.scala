@@ -0,0 +1,18 @@
+package com.doerapispring.messaging
+
+import java.util.Optional
+
+import com.doerapispring.config.ApplicationEventOrderingKey
+import org.springframework.context.{ApplicationEvent, PayloadApplicationEvent}
+import org.springframework.stereotype.Component
+
+@Component
+class OwnedTodoListEventOrderingKey extends ApplicationEventOrderingKey {
+  override def of(event: ApplicationEvent): Optional[AnyRef] = event match {
+    case payloadApplicationEvent: PayloadApplicationEvent[_] => payloadApplicationEvent.getPayload match {
+      case ownedTodoListEvent: OwnedTodoListEvent => Optional.of((ownedTodoListEvent.userId, ownedTodoListEvent.listId))
+      case _ => Optional.empty()
+    }
+    case _ => Optional.empty()
+  }
+}
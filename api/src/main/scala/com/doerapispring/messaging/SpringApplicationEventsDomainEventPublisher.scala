@@ -9,8 +9,8 @@ import org.springframework.stereotype.Component
 class SpringApplicationEventsDomainEventPublisher(val applicationEventPublisher: ApplicationEventPublisher)
   extends DomainEventPublisher[TodoListModel, TodoListEvent, UserId, ListId] {
 
-  override def publish(todoListModel: TodoListModel, todoListEvent: TodoListEvent, userId: UserId, listId: ListId): TodoListModel = {
-    applicationEventPublisher.publishEvent(new  PayloadApplicationEvent[OwnedTodoListEvent](todoListModel, OwnedTodoListEvent(userId, listId, todoListEvent)))
+  override def publish(todoListModel: TodoListModel, todoListEvent: TodoListEvent, userId: UserId, listId: ListId, expectedVersion: Int): TodoListModel = {
+    applicationEventPublisher.publishEvent(new  PayloadApplicationEvent[OwnedTodoListEvent](todoListModel, OwnedTodoListEvent(userId, listId, todoListEvent, expectedVersion)))
     todoListModel
   }
-}
\ No newline at end of file
+}
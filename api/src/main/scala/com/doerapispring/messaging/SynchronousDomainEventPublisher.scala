@@ -0,0 +1,17 @@
+package com.doerapispring.messaging
+
+import com.doerapispring.domain._
+import com.doerapispring.domain.events.TodoListEvent
+import org.springframework.stereotype.Component
+
+@Component
+class SynchronousDomainEventPublisher(private val todoListEventRepository: OwnedObjectVersionedWriteRepository[TodoListEvent, UserId, ListId],
+                                      private val snapshotTrigger: SnapshotTrigger[UserId, ListId])
+  extends DomainEventPublisher[TodoListModel, TodoListEvent, UserId, ListId] {
+
+  override def publish(todoListModel: TodoListModel, todoListEvent: TodoListEvent, userId: UserId, listId: ListId, expectedVersion: Int): TodoListModel = {
+    todoListEventRepository.append(userId, listId, expectedVersion, List(todoListEvent))
+    snapshotTrigger.snapshotIfDue(userId, listId)
+    todoListModel
+  }
+}
@@ -1,20 +1,46 @@
 package com.doerapispring.messaging
 
 import java.time.Clock
+import java.util.concurrent.TimeUnit
 
 import com.doerapispring.domain._
 import com.doerapispring.domain.events.TodoListEvent
+import io.micrometer.core.instrument.{Counter, MeterRegistry, Timer}
 import org.springframework.context.{ApplicationListener, PayloadApplicationEvent}
 import org.springframework.stereotype.Component
 
 @Component
-class TodoListEventApplicationEventListener(private val todoListEventRepository: OwnedObjectWriteRepository[TodoListEvent, UserId, ListId],
-                                            private val clock: Clock)
+class TodoListEventApplicationEventListener(private val todoListEventRepository: OwnedObjectVersionedWriteRepository[TodoListEvent, UserId, ListId],
+                                            private val snapshotTrigger: SnapshotTrigger[UserId, ListId],
+                                            private val clock: Clock,
+                                            meterRegistry: MeterRegistry)
   extends ApplicationListener[PayloadApplicationEvent[OwnedTodoListEvent]] {
 
+  private val persistedLag = Timer.builder("doer.events.persisted.lag")
+    .description("Time from an event being published to it being written, including the time it waits to be delivered")
+    .publishPercentileHistogram()
+    .register(meterRegistry)
+
+  private val conflicted = Counter.builder("doer.events.conflicted")
+    .description("Events dropped because the list had moved past the version they were made against by the time they were written")
+    .register(meterRegistry)
+
   override def onApplicationEvent(event: PayloadApplicationEvent[OwnedTodoListEvent]): Unit = {
     val ownedTodoListEvent = event.getPayload
-    todoListEventRepository.save(
-      ownedTodoListEvent.userId, ownedTodoListEvent.listId, ownedTodoListEvent.todoListEvent)
+    // The command has already been acknowledged, so there is nobody left to tell and the event is lost
+    try {
+      todoListEventRepository.append(
+        ownedTodoListEvent.userId,
+        ownedTodoListEvent.listId,
+        ownedTodoListEvent.expectedVersion,
+        List(ownedTodoListEvent.todoListEvent))
+    } catch {
+      case exception: VersionConflictException =>
+        conflicted.increment()
+        throw exception
+    }
+    // Application events are stamped with the wall clock when they are made, on the publishing thread
+    persistedLag.record(clock.millis() - event.getTimestamp, TimeUnit.MILLISECONDS)
+    snapshotTrigger.snapshotIfDue(ownedTodoListEvent.userId, ownedTodoListEvent.listId)
   }
 }
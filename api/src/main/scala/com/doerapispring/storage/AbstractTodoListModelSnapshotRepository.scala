@@ -19,15 +19,17 @@ abstract class AbstractTodoListModelSnapshotRepository[T](private val clazz: Cla
 
   override def save(userId: UserId, listId: ListId, snapshot: Snapshot[T]): Unit = {
     jdbcTemplate.update(
-      "INSERT INTO todo_lists (user_id, list_id, data, created_at) " +
-        "VALUES (?, ?, ?, ?) " +
+      "INSERT INTO todo_lists (user_id, list_id, data, created_at, version) " +
+        "VALUES (?, ?, ?, ?, ?) " +
         "ON CONFLICT (user_id, list_id) DO UPDATE " +
-        "SET data = excluded.data, created_at = excluded.created_at",
+        "SET data = excluded.data, created_at = excluded.created_at, version = excluded.version " +
+        "WHERE todo_lists.version <= excluded.version",
       (ps: PreparedStatement) => {
         ps.setString(1, userId.get())
         ps.setString(2, listId.get())
         ps.setString(3, objectMapper.writeValueAsString(snapshot.model))
         ps.setTimestamp(4, java.sql.Timestamp.from(snapshot.createdAt.toInstant))
+        ps.setInt(5, snapshot.version)
       })
   }
 
@@ -35,11 +37,12 @@ abstract class AbstractTodoListModelSnapshotRepository[T](private val clazz: Cla
     val rowMapper: RowMapper[Snapshot[T]] = (rs: ResultSet, _: Int) => {
       Snapshot(
         objectMapper.readValue(rs.getString("data"), clazz),
-        Date.from(rs.getTimestamp("created_at").toInstant))
+        Date.from(rs.getTimestamp("created_at").toInstant),
+        rs.getInt("version"))
     }
 
     jdbcTemplate.query(
-      "SELECT data, created_at FROM todo_lists WHERE user_id = ? AND list_id = ?",
+      "SELECT data, created_at, version FROM todo_lists WHERE user_id = ? AND list_id = ?",
       rowMapper,
       userId.get(),
       listId.get()
@@ -0,0 +1,118 @@
+package com.doerapispring.storage
+
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+
+import com.doerapispring.domain._
+import com.github.benmanes.caffeine.cache.{Cache, Caffeine}
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.context.annotation.Primary
+import org.springframework.stereotype.Repository
+
+@Repository
+@Primary
+class CachingTodoListModelRepository(private val todoListModelRepository: TodoListModelEventSourcedRepository,
+                                     @Value("${doer.lists.cache.max-size:10000}") maxSize: Long,
+                                     @Value("${doer.lists.cache.expire-after-access:30m}") expireAfterAccess: Duration,
+                                     @Value("${doer.lists.cache.trust-notifications:true}") val trustNotifications: Boolean,
+                                     meterRegistry: MeterRegistry)
+  extends OwnedObjectVersionedReadRepository[TodoListModel, UserId, ListId]
+    with OwnedObjectVersionedCache[TodoListModel, UserId, ListId] {
+
+  private case class CachedTodoListModel(todoListModel: Versioned[TodoListModel], headVersion: Int, listeningSince: Int) {
+    def isCurrent: Boolean = headVersion <= todoListModel.version
+  }
+
+  private case class Loading(readers: Int, headVersion: Int)
+
+  private val todoListModels: Cache[(UserId, ListId), CachedTodoListModel] = CaffeineCacheMetrics.monitor(
+    meterRegistry,
+    Caffeine.newBuilder()
+      .maximumSize(maxSize)
+      .expireAfterAccess(expireAfterAccess)
+      .recordStats()
+      .build[(UserId, ListId), CachedTodoListModel](),
+    "todoListModels")
+
+  private val loading = new ConcurrentHashMap[(UserId, ListId), Loading]()
+
+  @volatile private var notificationsConnected = false
+  @volatile private var connection = 0
+
+  override def findVersioned(userId: UserId, listId: ListId): Option[Versioned[TodoListModel]] = {
+    val key = (userId, listId)
+    Option(todoListModels.getIfPresent(key)) match {
+      case Some(cached) if trusted(cached) && cached.isCurrent =>
+        Some(cached.todoListModel)
+      case Some(cached) =>
+        load(key, () => todoListModelRepository.findVersioned(userId, listId, cached.todoListModel))
+      case None =>
+        load(key, () => todoListModelRepository.findVersioned(userId, listId))
+    }
+  }
+
+  override def findVersion(userId: UserId, listId: ListId): Option[Int] = {
+    Option(todoListModels.getIfPresent((userId, listId))) match {
+      case Some(cached) if trusted(cached) => Some(cached.headVersion)
+      case _ => todoListModelRepository.findVersion(userId, listId)
+    }
+  }
+
+  override def written(userId: UserId, listId: ListId, todoListModel: Versioned[TodoListModel]): Unit = {
+    cache((userId, listId), todoListModel, connection)
+  }
+
+  def appended(userId: UserId, listId: ListId, version: Int): Unit = {
+    val key = (userId, listId)
+    loading.computeIfPresent(key, (_, current) => current.copy(headVersion = math.max(current.headVersion, version)))
+    heardOf(key, version)
+  }
+
+  def notificationsStarted(): Unit = {
+    connection += 1
+    notificationsConnected = true
+  }
+
+  def notificationsStopped(): Unit = {
+    notificationsConnected = false
+    todoListModels.invalidateAll()
+  }
+
+  private def trusted(cached: CachedTodoListModel): Boolean = {
+    trustNotifications && notificationsConnected && cached.listeningSince == connection
+  }
+
+  private def load(key: (UserId, ListId), read: () => Option[Versioned[TodoListModel]]): Option[Versioned[TodoListModel]] = {
+    val readUnder = connection
+    loading.merge(key, Loading(1, 0), (current, _) => current.copy(readers = current.readers + 1))
+    try {
+      read() match {
+        case Some(todoListModel) =>
+          Some(cache(key, todoListModel, readUnder))
+        case None =>
+          todoListModels.invalidate(key)
+          None
+      }
+    } finally {
+      loading.computeIfPresent(key, (_, current) => if (current.readers == 1) null else current.copy(readers = current.readers - 1))
+    }
+  }
+
+  private def cache(key: (UserId, ListId), todoListModel: Versioned[TodoListModel], readUnder: Int): Versioned[TodoListModel] = {
+    val cached = todoListModels.asMap().merge(key, CachedTodoListModel(todoListModel, todoListModel.version, readUnder), newer)
+    Option(loading.get(key)).foreach(current => heardOf(key, current.headVersion))
+    cached.todoListModel
+  }
+
+  private def heardOf(key: (UserId, ListId), version: Int): Unit = {
+    todoListModels.asMap().computeIfPresent(key, (_, cached) => cached.copy(headVersion = math.max(cached.headVersion, version)))
+  }
+
+  // Two requests can catch the same list up concurrently; never let the slower one roll the cache back
+  private def newer(cached: CachedTodoListModel, loaded: CachedTodoListModel): CachedTodoListModel = {
+    if (loaded.todoListModel.version >= cached.todoListModel.version) loaded.copy(headVersion = math.max(cached.headVersion, loaded.headVersion))
+    else cached
+  }
+}
@@ -0,0 +1,50 @@
+package com.doerapispring.storage
+
+import java.sql.{ResultSet, Timestamp}
+import java.util.Date
+
+import com.doerapispring.domain._
+import org.springframework.jdbc.core.{JdbcTemplate, RowMapper}
+import org.springframework.stereotype.Repository
+
+import scala.jdk.CollectionConverters._
+
+@Repository
+class CompletedTodoProjectionRepository(private val jdbcTemplate: JdbcTemplate) extends CompletedTodoRepository {
+
+  private val rowMapper: RowMapper[(CompletedTodo, CompletedTodoCursor)] = (rs: ResultSet, _: Int) => {
+    val completedAt = Date.from(rs.getTimestamp("completed_at").toInstant)
+    (CompletedTodo(rs.getString("task"), completedAt), CompletedTodoCursor(completedAt, rs.getInt("version")))
+  }
+
+  override def findPage(userId: UserId, listId: ListId, before: Option[CompletedTodoCursor], limit: Int): CompletedTodoPage = {
+    val rows = before match {
+      case Some(cursor) =>
+        jdbcTemplate.query(
+          "SELECT task, completed_at, version FROM completed_todos " +
+            "WHERE user_id = ? AND list_id = ? AND (completed_at, version) < (?, ?) " +
+            "ORDER BY completed_at DESC, version DESC " +
+            "LIMIT ?",
+          rowMapper,
+          userId.get,
+          listId.get,
+          Timestamp.from(cursor.completedAt.toInstant),
+          Int.box(cursor.version),
+          Int.box(limit + 1))
+      case None =>
+        jdbcTemplate.query(
+          "SELECT task, completed_at, version FROM completed_todos " +
+            "WHERE user_id = ? AND list_id = ? " +
+            "ORDER BY completed_at DESC, version DESC " +
+            "LIMIT ?",
+          rowMapper,
+          userId.get,
+          listId.get,
+          Int.box(limit + 1))
+    }
+    val page = rows.asScala.toList.take(limit)
+    CompletedTodoPage(
+      page.map { case (completedTodo, _) => completedTodo },
+      Option.when(rows.size > limit)(page.last).map { case (_, cursor) => cursor })
+  }
+}
@@ -0,0 +1,113 @@
+package com.doerapispring.storage
+
+import java.net.InetAddress
+import java.time.{Clock, Duration, Instant}
+import java.util.concurrent.{ConcurrentHashMap, Executors, ScheduledExecutorService, TimeUnit}
+
+import com.doerapispring.domain._
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
+import org.springframework.context.SmartLifecycle
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.stereotype.Component
+
+import scala.jdk.CollectionConverters._
+
+@Component
+@ConditionalOnProperty(name = Array("doer.lists.ownership.enabled"), havingValue = "true")
+class LeaseListOwnership(private val jdbcTemplate: JdbcTemplate,
+                         private val clock: Clock,
+                         @Value("${doer.node.id:#{T(java.util.UUID).randomUUID().toString()}}") val nodeId: String,
+                         @Value("${doer.node.address:}") configuredAddress: String,
+                         @Value("${server.port:8080}") serverPort: Int,
+                         @Value("${doer.lists.ownership.lease:30s}") val leaseDuration: Duration)
+  extends ListOwnership with SmartLifecycle {
+
+  private case class Lease(expiresAt: Instant, todoListModel: Option[Versioned[TodoListModel]])
+
+  val address: String = Option(configuredAddress).filter(_.nonEmpty)
+    .getOrElse(s"http://${InetAddress.getLocalHost.getHostAddress}:$serverPort")
+
+  private val leases = new ConcurrentHashMap[(UserId, ListId), Lease]()
+  private var sweeper: ScheduledExecutorService = _
+  @volatile private var running = false
+
+  override def claim(userId: UserId, listId: ListId): Option[Versioned[TodoListModel]] = {
+    if (!running) throw new ListOwnershipStoppedException(listId.get)
+    val key = (userId, listId)
+    val now = clock.instant()
+    Option(leases.get(key)).filter(lease => lease.expiresAt.isAfter(now)) match {
+      case Some(lease) if lease.expiresAt.isAfter(now.plus(leaseDuration.dividedBy(2))) =>
+        lease.todoListModel
+      case held =>
+        if (renew(userId, listId)) {
+          if (!running) {
+            release(userId, listId)
+            throw new ListOwnershipStoppedException(listId.get)
+          }
+          val renewed = Lease(now.plus(leaseDuration), held.flatMap(_.todoListModel))
+          leases.put(key, renewed)
+          renewed.todoListModel
+        } else {
+          leases.remove(key)
+          throw new ListOwnedElsewhereException(listId.get, ownerAddress(userId, listId).getOrElse(address))
+        }
+    }
+  }
+
+  override def produced(userId: UserId, listId: ListId, todoListModel: Option[Versioned[TodoListModel]]): Unit = {
+    leases.computeIfPresent((userId, listId), (_, lease) => lease.copy(todoListModel = todoListModel))
+  }
+
+  override def start(): Unit = {
+    sweeper = Executors.newSingleThreadScheduledExecutor(runnable => {
+      val thread = new Thread(runnable, "listLeaseSweeper")
+      thread.setDaemon(true)
+      thread
+    })
+    sweeper.scheduleWithFixedDelay(() => sweep(), leaseDuration.toMillis, leaseDuration.toMillis, TimeUnit.MILLISECONDS)
+    running = true
+  }
+
+  override def stop(): Unit = {
+    running = false
+    sweeper.shutdownNow()
+    leases.clear()
+    jdbcTemplate.update("DELETE FROM list_leases WHERE owner = ?", nodeId)
+  }
+
+  override def isRunning: Boolean = running
+
+  override def getPhase: Int = SmartLifecycle.DEFAULT_PHASE - 2048
+
+  private def renew(userId: UserId, listId: ListId): Boolean = {
+    jdbcTemplate.update(
+      "INSERT INTO list_leases (user_id, list_id, owner, owner_address, expires_at) " +
+        "VALUES (?, ?, ?, ?, now() + ?::interval) " +
+        "ON CONFLICT (user_id, list_id) DO UPDATE " +
+        "SET owner = excluded.owner, owner_address = excluded.owner_address, expires_at = excluded.expires_at " +
+        "WHERE list_leases.owner = excluded.owner OR list_leases.expires_at < now()",
+      userId.get,
+      listId.get,
+      nodeId,
+      address,
+      s"${leaseDuration.toMillis} milliseconds") == 1
+  }
+
+  private def release(userId: UserId, listId: ListId): Unit = {
+    jdbcTemplate.update("DELETE FROM list_leases WHERE user_id = ? AND list_id = ? AND owner = ?", userId.get, listId.get, nodeId)
+  }
+
+  private def ownerAddress(userId: UserId, listId: ListId): Option[String] = {
+    jdbcTemplate.queryForList(
+      "SELECT owner_address FROM list_leases WHERE user_id = ? AND list_id = ?",
+      classOf[String],
+      userId.get,
+      listId.get).asScala.headOption
+  }
+
+  private def sweep(): Unit = {
+    val now = clock.instant()
+    leases.entrySet().removeIf(lease => !lease.getValue.expiresAt.isAfter(now))
+  }
+}
@@ -0,0 +1,88 @@
+package com.doerapispring.storage
+
+import java.sql.Connection
+import java.time.Duration
+
+import com.doerapispring.domain.{ListId, UserId}
+import com.fasterxml.jackson.databind.ObjectMapper
+import javax.sql.DataSource
+import org.postgresql.PGConnection
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
+import org.springframework.context.SmartLifecycle
+import org.springframework.stereotype.Component
+
+import scala.util.Using
+
+object ListEventNotificationListener {
+  val Channel = "list_events"
+}
+
+@Component
+@ConditionalOnProperty(name = Array("doer.lists.notifications.enabled"), havingValue = "true", matchIfMissing = true)
+class ListEventNotificationListener(private val dataSource: DataSource,
+                                    private val cachingTodoListModelRepository: CachingTodoListModelRepository,
+                                    private val objectMapper: ObjectMapper,
+                                    @Value("${doer.lists.notifications.poll-interval:100ms}") pollInterval: Duration,
+                                    @Value("${doer.lists.notifications.reconnect-backoff:5s}") reconnectBackoff: Duration)
+  extends SmartLifecycle {
+
+  @volatile private var running = false
+  private var listener: Thread = _
+
+  override def start(): Unit = {
+    running = true
+    listener = new Thread(() => listenUntilStopped(), "listEventNotificationListener")
+    listener.setDaemon(true)
+    listener.start()
+  }
+
+  override def stop(): Unit = {
+    running = false
+    listener.interrupt()
+    listener.join()
+  }
+
+  override def isRunning: Boolean = running
+
+  override def getPhase: Int = SmartLifecycle.DEFAULT_PHASE - 2048
+
+  private def listenUntilStopped(): Unit = {
+    while (running) {
+      try {
+        Using.resource(dataSource.getConnection)(listen)
+      } catch {
+        case _: InterruptedException =>
+        case exception: Exception =>
+          cachingTodoListModelRepository.notificationsStopped()
+          exception.printStackTrace()
+          try {
+            Thread.sleep(reconnectBackoff.toMillis)
+          } catch {
+            case _: InterruptedException =>
+          }
+      }
+    }
+    cachingTodoListModelRepository.notificationsStopped()
+  }
+
+  private def listen(connection: Connection): Unit = {
+    Using.resource(connection.createStatement())(statement => {
+      statement.execute("LISTEN " + ListEventNotificationListener.Channel)
+      cachingTodoListModelRepository.notificationsStarted()
+      val pgConnection = connection.unwrap(classOf[PGConnection])
+      while (running) {
+        // The driver only reads notifications off the socket while it is handling a statement
+        statement.execute("SELECT 1")
+        Option(pgConnection.getNotifications).toList.flatten.foreach(notification => {
+          val payload = objectMapper.readTree(notification.getParameter)
+          cachingTodoListModelRepository.appended(
+            new UserId(payload.get("user_id").asText()),
+            new ListId(payload.get("list_id").asText()),
+            payload.get("version").asInt())
+        })
+        Thread.sleep(pollInterval.toMillis)
+      }
+    })
+  }
+}
@@ -0,0 +1,18 @@
+package com.doerapispring.storage
+
+import java.time.{Clock, Duration}
+import java.util.Date
+
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.stereotype.Component
+
+@Component
+class SnapshotPolicy(@Value("${doer.snapshots.max-events:100}") val maxEvents: Int,
+                     @Value("${doer.snapshots.max-age:1d}") val maxAge: Duration,
+                     private val clock: Clock) {
+
+  def isDue(tailLength: Int, snapshotCreatedAt: Date): Boolean = {
+    tailLength > 0 &&
+      (tailLength >= maxEvents || !snapshotCreatedAt.toInstant.plus(maxAge).isAfter(clock.instant()))
+  }
+}
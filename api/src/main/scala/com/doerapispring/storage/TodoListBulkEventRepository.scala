@@ -0,0 +1,35 @@
+package com.doerapispring.storage
+
+import java.time.Clock
+import java.util.Date
+
+import com.doerapispring.domain._
+import com.doerapispring.domain.events.TodoListEvent
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.stereotype.Repository
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.support.TransactionTemplate
+
+@Repository
+class TodoListBulkEventRepository(private val todoListEventRepository: OwnedObjectVersionedWriteRepository[TodoListEvent, UserId, ListId],
+                                  private val todoListModelSnapshotRepository: OwnedObjectWriteRepository[Snapshot[TodoListModel], UserId, ListId],
+                                  private val todoListModelCache: OwnedObjectVersionedCache[TodoListModel, UserId, ListId],
+                                  transactionManager: PlatformTransactionManager,
+                                  private val clock: Clock,
+                                  @Value("${doer.lists.import.batch-size:1000}") val batchSize: Int)
+  extends TodoListBulkWriteRepository {
+
+  private val transactionTemplate = new TransactionTemplate(transactionManager)
+
+  override def appendAndSnapshot(userId: UserId, listId: ListId, expectedVersion: Int, todoListEvents: List[TodoListEvent], todoListModel: TodoListModel): Int = {
+    val version: Int = transactionTemplate.execute[Integer](_ => {
+      val version = todoListEvents.grouped(batchSize).foldLeft(expectedVersion) { (version, batch) =>
+        todoListEventRepository.append(userId, listId, version, batch)
+      }
+      todoListModelSnapshotRepository.save(userId, listId, Snapshot(todoListModel, Date.from(clock.instant()), version))
+      Int.box(version)
+    })
+    todoListModelCache.written(userId, listId, Versioned(todoListModel, version))
+    version
+  }
+}
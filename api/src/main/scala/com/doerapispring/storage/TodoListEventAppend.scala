@@ -0,0 +1,6 @@
+package com.doerapispring.storage
+
+import com.doerapispring.domain.events.TodoListEvent
+import com.doerapispring.domain.{ListId, UserId}
+
+case class TodoListEventAppend(userId: UserId, listId: ListId, expectedVersion: Int, todoListEvents: List[TodoListEvent])
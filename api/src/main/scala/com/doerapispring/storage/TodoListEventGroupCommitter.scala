@@ -0,0 +1,109 @@
+package com.doerapispring.storage
+
+import java.time.Duration
+import java.util.concurrent.locks.ReentrantReadWriteLock
+import java.util.concurrent.{CompletableFuture, LinkedBlockingQueue, TimeUnit}
+
+import com.doerapispring.domain.events.TodoListEvent
+import com.doerapispring.domain.{ListId, UserId, VersionConflictException}
+import io.micrometer.core.instrument.{DistributionSummary, MeterRegistry}
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.context.SmartLifecycle
+import org.springframework.stereotype.Component
+
+import scala.annotation.tailrec
+import scala.util.{Failure, Success, Try}
+
+@Component
+class TodoListEventGroupCommitter(private val todoListEventRepository: TodoListEventRepository,
+                                  @Value("${doer.events.group-commit.window:2ms}") val window: Duration,
+                                  @Value("${doer.events.group-commit.max-batch-size:500}") val maxBatchSize: Int,
+                                  @Value("${doer.events.group-commit.queue-capacity:10000}") queueCapacity: Int,
+                                  meterRegistry: MeterRegistry)
+  extends SmartLifecycle {
+
+  private case class PendingAppend(todoListEventAppend: TodoListEventAppend, committed: CompletableFuture[Int])
+
+  private val pendingAppends = new LinkedBlockingQueue[PendingAppend](queueCapacity)
+  private val runningLock = new ReentrantReadWriteLock()
+  private val batchSize = DistributionSummary.builder("doer.events.group-commit.batch-size")
+    .description("Appends written together in one group commit")
+    .register(meterRegistry)
+  @volatile private var running = false
+  private var flusher: Thread = _
+
+  def submit(userId: UserId, listId: ListId, expectedVersion: Int, todoListEvents: List[TodoListEvent]): CompletableFuture[Int] = {
+    val pendingAppend = PendingAppend(TodoListEventAppend(userId, listId, expectedVersion, todoListEvents), new CompletableFuture[Int]())
+    runningLock.readLock().lock()
+    try {
+      if (running) pendingAppends.put(pendingAppend)
+      else appendAlone(pendingAppend)
+    } finally {
+      runningLock.readLock().unlock()
+    }
+    pendingAppend.committed
+  }
+
+  override def start(): Unit = {
+    running = true
+    flusher = new Thread(() => flushUntilStopped(), "todoListEventGroupCommitter")
+    flusher.setDaemon(true)
+    flusher.start()
+  }
+
+  override def stop(): Unit = {
+    runningLock.writeLock().lock()
+    try {
+      running = false
+    } finally {
+      runningLock.writeLock().unlock()
+    }
+    flusher.join()
+  }
+
+  override def isRunning: Boolean = running
+
+  override def getPhase: Int = SmartLifecycle.DEFAULT_PHASE - 2048
+
+  private def flushUntilStopped(): Unit = {
+    while (running || !pendingAppends.isEmpty) {
+      Option(pendingAppends.poll(window.toNanos, TimeUnit.NANOSECONDS))
+        .foreach(first => flush(collect(List(first), 1, System.nanoTime() + window.toNanos)))
+    }
+  }
+
+  @tailrec
+  private def collect(batch: List[PendingAppend], size: Int, deadline: Long): List[PendingAppend] = {
+    if (size >= maxBatchSize) batch.reverse
+    else Option(pendingAppends.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) match {
+      case Some(pendingAppend) => collect(pendingAppend :: batch, size + 1, deadline)
+      case None => batch.reverse
+    }
+  }
+
+  private def flush(batch: List[PendingAppend]): Unit = {
+    batchSize.record(batch.size)
+    Try(todoListEventRepository.appendAll(batch.map(_.todoListEventAppend))) match {
+      case Success(_) =>
+        batch.foreach(pendingAppend => pendingAppend.committed.complete(
+          pendingAppend.todoListEventAppend.expectedVersion + pendingAppend.todoListEventAppend.todoListEvents.size))
+      // One stale append fails the whole statement, so write them one at a time to let the others through
+      case Failure(_: VersionConflictException) if batch.size > 1 =>
+        batch.foreach(appendAlone)
+      case Failure(exception) =>
+        batch.foreach(pendingAppend => pendingAppend.committed.completeExceptionally(exception))
+    }
+  }
+
+  private def appendAlone(pendingAppend: PendingAppend): Unit = {
+    val todoListEventAppend = pendingAppend.todoListEventAppend
+    Try(todoListEventRepository.append(
+      todoListEventAppend.userId,
+      todoListEventAppend.listId,
+      todoListEventAppend.expectedVersion,
+      todoListEventAppend.todoListEvents)) match {
+      case Success(version) => pendingAppend.committed.complete(version)
+      case Failure(exception) => pendingAppend.committed.completeExceptionally(exception)
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package com.doerapispring.storage
+
+import java.sql.ResultSet
+import java.util.Date
+
+import com.doerapispring.domain._
+import com.doerapispring.domain.events.TodoListEvent
+import com.fasterxml.jackson.databind.ObjectMapper
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.jdbc.core.{JdbcTemplate, RowCallbackHandler}
+import org.springframework.stereotype.Repository
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.support.TransactionTemplate
+
+// The driver only fetches in batches of the fetch size inside a transaction
+@Repository
+class TodoListEventHistoryRepository(jdbcTemplate: JdbcTemplate,
+                                     transactionManager: PlatformTransactionManager,
+                                     private val objectMapper: ObjectMapper,
+                                     @Value("${doer.export.fetch-size:500}") fetchSize: Int)
+  extends ListHistoryRepository {
+
+  private val cursorJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource)
+  cursorJdbcTemplate.setFetchSize(fetchSize)
+
+  private val transactionTemplate = new TransactionTemplate(transactionManager)
+  transactionTemplate.setReadOnly(true)
+
+  override def forEachEvent(userId: UserId, listId: ListId, consumer: ListHistoryEvent => Unit): Unit = {
+    transactionTemplate.executeWithoutResult(_ =>
+      cursorJdbcTemplate.query(
+        "SELECT version, event_class, data, created_at " +
+          "FROM list_events " +
+          "WHERE user_id = ? AND list_id = ? " +
+          "ORDER BY version ASC",
+        new RowCallbackHandler {
+          override def processRow(rs: ResultSet): Unit = {
+            consumer(ListHistoryEvent(
+              listId,
+              rs.getInt("version"),
+              Date.from(rs.getTimestamp("created_at").toInstant),
+              objectMapper.readValue(rs.getString("data"), Class.forName(rs.getString("event_class")).asSubclass(classOf[TodoListEvent]))))
+          }
+        },
+        userId.get,
+        listId.get))
+  }
+}
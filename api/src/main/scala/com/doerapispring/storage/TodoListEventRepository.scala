@@ -1,47 +1,150 @@
 package com.doerapispring.storage
 
-import java.sql.Timestamp
+import java.sql.{Connection, PreparedStatement, Timestamp}
 import java.time.Clock
 
-import com.doerapispring.domain.events.TodoListEvent
-import com.doerapispring.domain.{ListId, OwnedObjectWriteRepository, UserId}
+import com.doerapispring.domain.events.{TodoCompletedEvent, TodoListEvent}
+import com.doerapispring.domain._
 import com.fasterxml.jackson.databind.ObjectMapper
-import org.springframework.jdbc.core.JdbcTemplate
-import org.springframework.jdbc.core.namedparam.{MapSqlParameterSource, SqlParameterSource}
-import org.springframework.jdbc.core.simple.SimpleJdbcInsert
+import io.micrometer.core.instrument.{DistributionSummary, MeterRegistry, Timer}
+import org.springframework.dao.DuplicateKeyException
+import org.springframework.jdbc.core.{JdbcTemplate, PreparedStatementCallback, PreparedStatementCreator}
 import org.springframework.stereotype.Repository
 
 @Repository
 class TodoListEventRepository(private val objectMapper: ObjectMapper,
                               private val jdbcTemplate: JdbcTemplate,
-                              private val clock: Clock)
-  extends OwnedObjectWriteRepository[TodoListEvent, UserId, ListId] {
+                              private val clock: Clock,
+                              meterRegistry: MeterRegistry)
+  extends OwnedObjectWriteRepository[TodoListEvent, UserId, ListId]
+    with OwnedObjectVersionedWriteRepository[TodoListEvent, UserId, ListId] {
+
+  private val appends: Map[String, (Timer, DistributionSummary)] = List("saveAll", "append", "appendAll")
+    .map(method => method -> (
+      Timer.builder("doer.events.append")
+        .description("Time taken to write one statement's worth of events")
+        .tag("method", method)
+        .publishPercentileHistogram()
+        .register(meterRegistry),
+      DistributionSummary.builder("doer.events.append.batch-size")
+        .description("Events written in one statement")
+        .tag("method", method)
+        .publishPercentileHistogram()
+        .register(meterRegistry)))
+    .toMap
+
+  // Event dates are ISO 8601 text, or epoch milliseconds when the ObjectMapper writes dates as timestamps
+  private val completedAtSql =
+    "CASE WHEN data::json->>'completedAt' ~ '^\\d+$' " +
+      "THEN to_timestamp((data::json->>'completedAt')::bigint / 1000.0) " +
+      "ELSE (data::json->>'completedAt')::timestamptz END"
+
+  // Events are bound as arrays so each statement's text, and its server-side prepared statement, never changes
+  private val appendSql = notifying(
+    "INSERT INTO list_events (user_id, list_id, version, event_class, data, created_at) " +
+      "SELECT ?, ?, ? + list_event.ordinality, list_event.event_class, list_event.data, ? " +
+      "FROM unnest(?::varchar[], ?::varchar[]) WITH ORDINALITY AS list_event(event_class, data, ordinality)")
+
+  private val appendToHeadSql = notifying(
+    "INSERT INTO list_events (user_id, list_id, version, event_class, data, created_at) " +
+      "SELECT ?, ?, " +
+      "COALESCE((SELECT MAX(version) FROM list_events WHERE user_id = ? AND list_id = ?), -1) + list_event.ordinality, " +
+      "list_event.event_class, list_event.data, ? " +
+      "FROM unnest(?::varchar[], ?::varchar[]) WITH ORDINALITY AS list_event(event_class, data, ordinality)")
+
+  private val appendAllSql = notifying(
+    "INSERT INTO list_events (user_id, list_id, version, event_class, data, created_at) " +
+      "SELECT list_event.user_id, list_event.list_id, list_event.version, list_event.event_class, list_event.data, ? " +
+      "FROM unnest(?::varchar[], ?::varchar[], ?::integer[], ?::varchar[], ?::varchar[]) " +
+      "AS list_event(user_id, list_id, version, event_class, data)")
+
+  private def notifying(insertSql: String): String = {
+    "WITH appended AS (" + insertSql + " RETURNING user_id, list_id, version, event_class, data), " +
+      "completed AS (" +
+      "INSERT INTO completed_todos (user_id, list_id, version, task, completed_at) " +
+      "SELECT user_id, list_id, version, data::json->>'task', " + completedAtSql + " " +
+      "FROM appended " +
+      "WHERE event_class = '" + classOf[TodoCompletedEvent].getName + "' AND data::json->>'task' IS NOT NULL) " +
+      "SELECT pg_notify('" + ListEventNotificationListener.Channel + "', " +
+      "json_build_object('user_id', user_id, 'list_id', list_id, 'version', MAX(version))::text) " +
+      "FROM appended GROUP BY user_id, list_id"
+  }
 
   override def save(userId: UserId, listId: ListId, todoListEvent: TodoListEvent): Unit = saveAll(userId, listId, List(todoListEvent))
 
-  override def saveAll(userId: UserId, listId: ListId, todoListEvents: List[TodoListEvent]): Unit = {
-    val insert = new SimpleJdbcInsert(jdbcTemplate).withTableName("list_events");
-    val queryArguments: Array[AnyRef] = List(userId.get, listId.get).toArray
-    val nextVersion = jdbcTemplate.queryForList(
-      "SELECT version " +
-        "FROM list_events " +
-        "WHERE user_id = ? " +
-        "AND list_id = ? " +
-        "ORDER BY version DESC " +
-        "LIMIT 1", queryArguments, classOf[Int])
-      .stream()
-      .findFirst()
-      .map(lastVersion => lastVersion + 1)
-      .orElse(0)
-
-    val sqlParameterSources: Array[SqlParameterSource] = todoListEvents.zipWithIndex.map { case (todoListEvent, i) =>
-      new MapSqlParameterSource("user_id", userId.get)
-        .addValue("list_id", listId.get)
-        .addValue("version", nextVersion + i)
-        .addValue("event_class", todoListEvent.getClass.getName)
-        .addValue("data", objectMapper.writeValueAsString(todoListEvent))
-        .addValue("created_at", Timestamp.from(clock.instant()))
-    }.toArray
-    insert.executeBatch(sqlParameterSources: _*)
+  override def saveAll(userId: UserId, listId: ListId, todoListEvents: List[TodoListEvent]): Unit = recorded("saveAll", todoListEvents.size) {
+    jdbcTemplate.execute(new PreparedStatementCreator {
+      override def createPreparedStatement(connection: Connection): PreparedStatement = {
+        val ps = connection.prepareStatement(appendToHeadSql)
+        ps.setString(1, userId.get)
+        ps.setString(2, listId.get)
+        ps.setString(3, userId.get)
+        ps.setString(4, listId.get)
+        ps.setTimestamp(5, Timestamp.from(clock.instant()))
+        setEvents(connection, ps, 6, todoListEvents)
+        ps
+      }
+    }, executeStatement)
+  }
+
+  override def append(userId: UserId, listId: ListId, expectedVersion: Int, todoListEvents: List[TodoListEvent]): Int = {
+    try recorded("append", todoListEvents.size) {
+      jdbcTemplate.execute(new PreparedStatementCreator {
+        override def createPreparedStatement(connection: Connection): PreparedStatement = {
+          val ps = connection.prepareStatement(appendSql)
+          ps.setString(1, userId.get)
+          ps.setString(2, listId.get)
+          ps.setInt(3, expectedVersion)
+          ps.setTimestamp(4, Timestamp.from(clock.instant()))
+          setEvents(connection, ps, 5, todoListEvents)
+          ps
+        }
+      }, executeStatement)
+    } catch {
+      case _: DuplicateKeyException =>
+        throw new VersionConflictException("list " + listId.get + " has changed since version " + expectedVersion)
+    }
+    expectedVersion + todoListEvents.size
+  }
+
+  @throws[VersionConflictException]
+  def appendAll(todoListEventAppends: List[TodoListEventAppend]): Unit = {
+    val rows = todoListEventAppends.flatMap(todoListEventAppend =>
+      todoListEventAppend.todoListEvents.zipWithIndex.map { case (todoListEvent, index) =>
+        (todoListEventAppend.userId, todoListEventAppend.listId, todoListEventAppend.expectedVersion + index + 1, todoListEvent)
+      })
+    try recorded("appendAll", rows.size) {
+      jdbcTemplate.execute(new PreparedStatementCreator {
+        override def createPreparedStatement(connection: Connection): PreparedStatement = {
+          val ps = connection.prepareStatement(appendAllSql)
+          ps.setTimestamp(1, Timestamp.from(clock.instant()))
+          ps.setArray(2, connection.createArrayOf("varchar", rows.map { case (userId, _, _, _) => userId.get }.toArray[AnyRef]))
+          ps.setArray(3, connection.createArrayOf("varchar", rows.map { case (_, listId, _, _) => listId.get }.toArray[AnyRef]))
+          ps.setArray(4, connection.createArrayOf("integer", rows.map { case (_, _, version, _) => Int.box(version) }.toArray[AnyRef]))
+          setEvents(connection, ps, 5, rows.map { case (_, _, _, todoListEvent) => todoListEvent })
+          ps
+        }
+      }, executeStatement)
+    } catch {
+      case _: DuplicateKeyException =>
+        throw new VersionConflictException("one of " + todoListEventAppends.size + " lists has changed since its expected version")
+    }
+  }
+
+  private def recorded[T](method: String, eventCount: Int)(write: => T): T = {
+    val (timer, batchSize) = appends(method)
+    batchSize.record(eventCount)
+    timer.recordCallable(() => write)
+  }
+
+  private val executeStatement = new PreparedStatementCallback[Boolean] {
+    override def doInPreparedStatement(ps: PreparedStatement): Boolean = ps.execute()
+  }
+
+  private def setEvents(connection: Connection, ps: PreparedStatement, parameterIndex: Int, todoListEvents: List[TodoListEvent]): Unit = {
+    ps.setArray(parameterIndex, connection.createArrayOf("varchar",
+      todoListEvents.map(todoListEvent => todoListEvent.getClass.getName).toArray[AnyRef]))
+    ps.setArray(parameterIndex + 1, connection.createArrayOf("varchar",
+      todoListEvents.map(todoListEvent => objectMapper.writeValueAsString(todoListEvent)).toArray[AnyRef]))
   }
 }
@@ -1,10 +1,14 @@
 package com.doerapispring.storage
 
 import java.sql.ResultSet
+import java.time.{Clock, Duration}
+import java.util.Date
+import java.util.concurrent.TimeUnit
 
 import com.doerapispring.domain._
 import com.doerapispring.domain.events.TodoListEvent
 import com.fasterxml.jackson.databind.ObjectMapper
+import io.micrometer.core.instrument.{DistributionSummary, MeterRegistry, Timer}
 import org.springframework.jdbc.core.{JdbcTemplate, RowMapper}
 import org.springframework.stereotype.Repository
 
@@ -13,36 +17,140 @@ import scala.util.{Failure, Success, Try}
 
 @Repository
 class TodoListModelEventSourcedRepository(private val todoListModelSnapshotRepository: OwnedObjectReadRepository[Snapshot[TodoListModel], UserId, ListId],
+                                          private val todoListModelSnapshotWriteRepository: OwnedObjectWriteRepository[Snapshot[TodoListModel], UserId, ListId],
+                                          private val snapshotPolicy: SnapshotPolicy,
                                           private val objectMapper: ObjectMapper,
-                                          private val jdbcTemplate: JdbcTemplate)
-  extends OwnedObjectReadRepository[TodoListModel, UserId, ListId] {
-
-  override def find(userId: UserId, listId: ListId): Option[TodoListModel] = {
-    val todoListModelSnapshot = todoListModelSnapshotRepository.find(userId, listId)
-    val events = todoListModelSnapshot
-      .map(snapshot => snapshot.createdAt)
-      .toList
-      .flatMap(snapshotTime => {
-        val queryArguments: Array[AnyRef] = List(userId.get, listId.get, snapshotTime).toArray
-        val rowMapper = new RowMapper[(String, String)] {
-          override def mapRow(rs: ResultSet, rowNum: Int): (String, String) = {
-            (rs.getString("data"), rs.getString("event_class"))
+                                          private val jdbcTemplate: JdbcTemplate,
+                                          private val clock: Clock,
+                                          meterRegistry: MeterRegistry)
+  extends OwnedObjectVersionedReadRepository[TodoListModel, UserId, ListId]
+    with SnapshotTrigger[UserId, ListId] {
+
+  // Replays are tagged by whether they start from the stored snapshot or from a model this node already holds
+  private val replays: Map[String, (Timer, DistributionSummary)] = List("snapshot", "cached")
+    .map(from => from -> (
+      Timer.builder("doer.lists.replay")
+        .description("Time taken to read a list's events after a version and apply them")
+        .tag("from", from)
+        .publishPercentileHistogram()
+        .register(meterRegistry),
+      DistributionSummary.builder("doer.lists.replay.events")
+        .description("Events applied to bring a list up to date when it is loaded")
+        .tag("from", from)
+        .publishPercentileHistogram()
+        .register(meterRegistry)))
+    .toMap
+  private val snapshotAge = Timer.builder("doer.lists.snapshot.age")
+    .description("Age of the snapshot a list is loaded from")
+    .publishPercentileHistogram()
+    .maximumExpectedValue(Duration.ofDays(7))
+    .register(meterRegistry)
+
+  override def findVersioned(userId: UserId, listId: ListId): Option[Versioned[TodoListModel]] = {
+    todoListModelSnapshotRepository.find(userId, listId)
+      .flatMap(snapshot => {
+        snapshotAge.record(Duration.between(snapshot.createdAt.toInstant, clock.instant()))
+        replay(userId, listId, Versioned(snapshot.model, snapshot.version), "snapshot")
+          .map { case (todoListModel, tailLength) =>
+            if (snapshotPolicy.isDue(tailLength, snapshot.createdAt)) {
+              todoListModelSnapshotWriteRepository.save(userId, listId, Snapshot(todoListModel.model, Date.from(clock.instant()), todoListModel.version))
+            }
+            todoListModel
           }
-        }
-        jdbcTemplate.query(
-          "SELECT data, event_class " +
-            "FROM list_events " +
-            "WHERE user_id = ? AND list_id = ? AND created_at > ? " +
-            "ORDER BY version ASC", queryArguments, rowMapper).asScala.toList
       })
-      .map { case (data, eventClass) =>
+  }
+
+  override def findVersioned(userId: UserId, listId: ListId, since: Versioned[TodoListModel]): Option[Versioned[TodoListModel]] = {
+    replay(userId, listId, since, "cached").map { case (todoListModel, tailLength) =>
+      if (tailLength > 0) {
+        snapshotIfDue(userId, listId, todoListModel)
+      }
+      todoListModel
+    }
+  }
+
+  // Answered from the primary key alone, without reading the snapshot's data or replaying anything
+  override def findVersion(userId: UserId, listId: ListId): Option[Int] = {
+    val rowMapper: RowMapper[Int] = (rs: ResultSet, _: Int) => rs.getInt("version")
+    jdbcTemplate.query(
+      "SELECT GREATEST(version, " +
+        "(SELECT MAX(version) FROM list_events WHERE user_id = todo_lists.user_id AND list_id = todo_lists.list_id)) AS version " +
+        "FROM todo_lists " +
+        "WHERE user_id = ? AND list_id = ?",
+      rowMapper,
+      userId.get,
+      listId.get)
+      .asScala
+      .headOption
+  }
+
+  // Applies the list's events after the given version, returning the resulting model along with how many events that took
+  private def replay(userId: UserId, listId: ListId, since: Versioned[TodoListModel], from: String): Option[(Versioned[TodoListModel], Int)] = {
+    val (replayTimer, replayEvents) = replays(from)
+    val started = System.nanoTime()
+    val queryArguments: Array[AnyRef] = List(userId.get, listId.get, Int.box(since.version)).toArray
+    val rowMapper = new RowMapper[(String, String, Int)] {
+      override def mapRow(rs: ResultSet, rowNum: Int): (String, String, Int) = {
+        (rs.getString("data"), rs.getString("event_class"), rs.getInt("version"))
+      }
+    }
+    val events = jdbcTemplate.query(
+      "SELECT data, event_class, version " +
+        "FROM list_events " +
+        "WHERE user_id = ? AND list_id = ? AND version > ? " +
+        "ORDER BY version ASC", queryArguments, rowMapper).asScala.toList
+    val version = events.lastOption
+      .map { case (_, _, lastVersion) => lastVersion }
+      .getOrElse(since.version)
+    events
+      .map { case (data, eventClass, _) =>
         objectMapper.readValue(data, Class.forName(eventClass).asSubclass(classOf[TodoListEvent]))
       }
-    events.foldLeft(Try(todoListModelSnapshot.get.model)) {
-      case (Success(todoList), event) => Try(TodoListModel.applyEvent(todoList, event))
-      case (Failure(exception), _) =>
-        exception.printStackTrace()
-        Failure(exception)
-    }.toOption
+      .foldLeft(Try(since.model)) {
+        case (Success(todoList), event) => Try(TodoListModel.applyEvent(todoList, event))
+        case (Failure(exception), _) =>
+          exception.printStackTrace()
+          Failure(exception)
+      }
+      .toOption
+      .map(todoListModel => {
+        replayTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS)
+        replayEvents.record(events.size)
+        (Versioned(todoListModel, version), events.size)
+      })
+  }
+
+  // A list caught up from a cached model is saved as it stands, without replaying it from the stored snapshot
+  private def snapshotIfDue(userId: UserId, listId: ListId, todoListModel: Versioned[TodoListModel]): Unit = {
+    val rowMapper: RowMapper[(Date, Int)] = (rs: ResultSet, _: Int) => (Date.from(rs.getTimestamp("created_at").toInstant), rs.getInt("version"))
+    jdbcTemplate.query(
+      "SELECT created_at, version FROM todo_lists WHERE user_id = ? AND list_id = ?",
+      rowMapper,
+      userId.get,
+      listId.get)
+      .asScala
+      .headOption
+      .filter { case (snapshotCreatedAt, snapshotVersion) => snapshotPolicy.isDue(todoListModel.version - snapshotVersion, snapshotCreatedAt) }
+      .foreach(_ => todoListModelSnapshotWriteRepository.save(userId, listId, Snapshot(todoListModel.model, Date.from(clock.instant()), todoListModel.version)))
+  }
+
+  override def snapshotIfDue(userId: UserId, listId: ListId): Unit = {
+    val rowMapper: RowMapper[(Date, Int)] = (rs: ResultSet, _: Int) => {
+      val snapshotVersion = rs.getInt("version")
+      val lastVersion = Option(rs.getObject("last_version")).map(_ => rs.getInt("last_version")).getOrElse(snapshotVersion)
+      (Date.from(rs.getTimestamp("created_at").toInstant), lastVersion - snapshotVersion)
+    }
+    jdbcTemplate.query(
+      "SELECT created_at, version, " +
+        "(SELECT MAX(version) FROM list_events WHERE user_id = todo_lists.user_id AND list_id = todo_lists.list_id) AS last_version " +
+        "FROM todo_lists " +
+        "WHERE user_id = ? AND list_id = ?",
+      rowMapper,
+      userId.get,
+      listId.get)
+      .asScala
+      .headOption
+      .filter { case (snapshotCreatedAt, tailLength) => snapshotPolicy.isDue(tailLength, snapshotCreatedAt) }
+      .foreach(_ => find(userId, listId))
   }
 }
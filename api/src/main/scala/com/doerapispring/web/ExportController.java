@@ -0,0 +1,58 @@
+package com.doerapispring.web;
+
+import com.doerapispring.authentication.AuthenticatedUser;
+import com.doerapispring.domain.ListApplicationService;
+import com.doerapispring.domain.User;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+@RestController
+@CrossOrigin
+@RequestMapping(value = "/v1")
+class ExportController {
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ListApplicationService listApplicationService;
+    private final ListHistoryTransformer listHistoryTransformer;
+    private final ObjectWriter objectWriter;
+
+    ExportController(ListApplicationService listApplicationService,
+                     ListHistoryTransformer listHistoryTransformer,
+                     ObjectMapper objectMapper) {
+        this.listApplicationService = listApplicationService;
+        this.listHistoryTransformer = listHistoryTransformer;
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    // Writes one JSON document per line straight to the response as the history is read
+    @GetMapping(value = "/export")
+    ResponseEntity<StreamingResponseBody> export(@AuthenticationPrincipal AuthenticatedUser authenticatedUser) {
+        User user = authenticatedUser.getUser();
+        StreamingResponseBody streamingResponseBody = outputStream -> {
+            JsonGenerator jsonGenerator = objectWriter.getFactory().createGenerator(outputStream);
+            jsonGenerator.setRootValueSeparator(null);
+            listApplicationService.exportHistory(user, listHistoryEntry -> {
+                try {
+                    objectWriter.writeValue(jsonGenerator, listHistoryTransformer.transform(listHistoryEntry));
+                    jsonGenerator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            jsonGenerator.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(streamingResponseBody);
+    }
+}
@@ -62,6 +62,11 @@ public class HateoasLinkGeneratorImpl implements HateoasLinkGenerator {
         return linkTo(methodOn(TodosController.class).move(null, listId, index, targetIndex)).withSelfRel();
     }
 
+    @Override
+    public Link moveTodoTemplateLink(String listId) {
+        return LinkTemplate.of(methodOn(TodosController.class).move(null, listId, 0, 0)).expand(listId);
+    }
+
     @Override
     public Link listPullTodosLink(String listId) {
         return linkTo(methodOn(TodosController.class).pull(null, listId)).withSelfRel();
@@ -82,9 +87,19 @@ public class HateoasLinkGeneratorImpl implements HateoasLinkGenerator {
         return linkTo(methodOn(ListsController.class).unlock(null, listId)).withSelfRel();
     }
 
+    @Override
+    public Link listImportLink(String listId) {
+        return linkTo(methodOn(ListsController.class).importTodos(null, listId, null)).withSelfRel();
+    }
+
+    @Override
+    public Link listCommandsLink(String listId) {
+        return linkTo(methodOn(TodosController.class).performCommands(null, listId, null)).withSelfRel();
+    }
+
     @Override
     public Link listLink(String listId) {
-        return linkTo(methodOn(ListsController.class).show(null, listId)).withSelfRel();
+        return linkTo(methodOn(ListsController.class).show(null, listId, null)).withSelfRel();
     }
 
     @Override
@@ -99,7 +114,12 @@ public class HateoasLinkGeneratorImpl implements HateoasLinkGenerator {
 
     @Override
     public Link completedListLink(String listId) {
-        return linkTo(methodOn(ListsController.class).showCompleted(null, listId)).withSelfRel();
+        return completedListPageLink(listId, null, null).expand();
+    }
+
+    @Override
+    public Link completedListPageLink(String listId, String before, Integer limit) {
+        return linkTo(methodOn(ListsController.class).showCompleted(null, listId, before, limit)).withSelfRel();
     }
 
     @Override
@@ -119,7 +139,7 @@ public class HateoasLinkGeneratorImpl implements HateoasLinkGenerator {
 
     @Override
     public Link defaultListLink() {
-        return linkTo(methodOn(ListsController.class).showDefault(null)).withSelfRel();
+        return linkTo(methodOn(ListsController.class).showDefault(null, null)).withSelfRel();
     }
 
     @Override
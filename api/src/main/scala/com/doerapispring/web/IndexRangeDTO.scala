@@ -0,0 +1,3 @@
+package com.doerapispring.web
+
+case class IndexRangeDTO(first: Int, last: Int)
@@ -0,0 +1,23 @@
+package com.doerapispring.web
+
+import java.util.Date
+
+import com.doerapispring.domain.events.TodoListEvent
+import com.doerapispring.domain.{ListHistoryEntry, ListHistoryEvent, ListHistoryState, TodoListModel}
+import org.springframework.stereotype.Component
+
+case class ListStateLineDTO(`type`: String, listId: String, name: String, version: Int, state: TodoListModel)
+
+case class ListEventLineDTO(`type`: String, listId: String, version: Int, createdAt: Date, event: String, data: TodoListEvent)
+
+@Component
+class ListHistoryTransformer {
+  def transform(listHistoryEntry: ListHistoryEntry): AnyRef = {
+    listHistoryEntry match {
+      case ListHistoryState(listId, name, todoListModel) =>
+        ListStateLineDTO("list", listId.get, name, todoListModel.version, todoListModel.model)
+      case ListHistoryEvent(listId, version, createdAt, todoListEvent) =>
+        ListEventLineDTO("event", listId.get, version, createdAt, todoListEvent.getClass.getSimpleName, todoListEvent)
+    }
+  }
+}
@@ -1,88 +1,187 @@
 package com.doerapispring.web;
 
 import com.doerapispring.authentication.AuthenticatedUser;
+import com.doerapispring.domain.CompletedTodoPage;
+import com.doerapispring.domain.DomainException;
+import com.doerapispring.domain.ImportedTodo;
 import com.doerapispring.domain.ListApplicationService;
 import com.doerapispring.domain.ListId;
 import com.doerapispring.domain.TodoListModel;
 import com.doerapispring.domain.User;
+import com.doerapispring.domain.Versioned;
 import com.doerapispring.domain.events.UnlockedEvent;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import scala.Option;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.Clock;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 import static java.util.stream.Collectors.toList;
 import static scala.jdk.javaapi.CollectionConverters.asJava;
+import static scala.jdk.javaapi.CollectionConverters.asScala;
+import static scala.jdk.javaapi.OptionConverters.toJava;
 
 @RestController
-@CrossOrigin
+@CrossOrigin(exposedHeaders = ListVersionHeader.NAME)
 @RequestMapping(value = "/v1")
 class ListsController {
     private final HateoasLinkGenerator hateoasLinkGenerator;
     private final ListApplicationService listApplicationService;
     private final TodoListModelResourceTransformer todoListModelResourceTransformer;
     private final Clock clock;
+    private final TodoListETag todoListETag;
+    private final ObjectReader importedTodoFormReader;
+    private final int maxImportedTodos;
 
     ListsController(HateoasLinkGenerator hateoasLinkGenerator,
                     ListApplicationService listApplicationService,
                     TodoListModelResourceTransformer todoListModelResourceTransformer,
-                    Clock clock) {
+                    Clock clock,
+                    TodoListETag todoListETag,
+                    ObjectMapper objectMapper,
+                    @Value("${doer.lists.import.max-todos:10000}") int maxImportedTodos) {
         this.hateoasLinkGenerator = hateoasLinkGenerator;
         this.listApplicationService = listApplicationService;
         this.todoListModelResourceTransformer = todoListModelResourceTransformer;
         this.clock = clock;
+        this.todoListETag = todoListETag;
+        this.importedTodoFormReader = objectMapper.readerFor(ImportedTodoForm.class);
+        this.maxImportedTodos = maxImportedTodos;
     }
 
     @PostMapping(value = "/lists/{listId}/unlock")
     @ResponseBody
     ResponseEntity<TodoListReadModelResponse> unlock(@AuthenticationPrincipal AuthenticatedUser authenticatedUser,
                                              @PathVariable String listId) {
-        TodoListModel todoListModel = listApplicationService.performOperation(
+        Versioned<TodoListModel> todoListModel = listApplicationService.performOperation(
                 authenticatedUser.getUser(),
                 new ListId(listId),
                 new UnlockedEvent(Date.from(clock.instant())));
-        TodoListReadModelResponse todoListReadModelResponse = todoListModelResourceTransformer.transform(new ListId(listId), todoListModel, Date.from(clock.instant()));
+        TodoListReadModelResponse todoListReadModelResponse = todoListModelResourceTransformer.transform(new ListId(listId), todoListModel.model(), Date.from(clock.instant()));
         todoListReadModelResponse.add(
                 hateoasLinkGenerator.listUnlockLink(listId).withSelfRel(),
                 hateoasLinkGenerator.listLink(listId).withRel("list"));
-        return ResponseEntity.status(HttpStatus.ACCEPTED).body(todoListReadModelResponse);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(ListVersionHeader.NAME, Integer.toString(todoListModel.version()))
+                .body(todoListReadModelResponse);
+    }
+
+    // Takes the todos as newline-delimited JSON, or as a JSON array
+    @PostMapping(value = "/lists/{listId}/import")
+    @ResponseBody
+    ResponseEntity<TodoListReadModelResponse> importTodos(@AuthenticationPrincipal AuthenticatedUser authenticatedUser,
+                                                          @PathVariable String listId,
+                                                          InputStream inputStream) {
+        List<ImportedTodo> importedTodos = new ArrayList<>();
+        try (MappingIterator<ImportedTodoForm> importedTodoForms = importedTodoFormReader.readValues(inputStream)) {
+            while (importedTodoForms.hasNextValue()) {
+                if (importedTodos.size() == maxImportedTodos) {
+                    throw new DomainException("an import may hold at most " + maxImportedTodos + " todos");
+                }
+                ImportedTodoForm importedTodoForm = importedTodoForms.nextValue();
+                if (importedTodoForm.getTask() == null || importedTodoForm.getTask().isEmpty()) {
+                    throw new DomainException("imported todo " + (importedTodos.size() + 1) + " has no task");
+                }
+                importedTodos.add(new ImportedTodo(importedTodoForm.getTask(), Option.apply(importedTodoForm.getCompletedAt())));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Versioned<TodoListModel> todoListModel = listApplicationService.importTodos(
+                authenticatedUser.getUser(),
+                new ListId(listId),
+                asScala(importedTodos).toList());
+        TodoListReadModelResponse todoListReadModelResponse = todoListModelResourceTransformer.transform(new ListId(listId), todoListModel.model(), Date.from(clock.instant()));
+        todoListReadModelResponse.add(
+                hateoasLinkGenerator.listImportLink(listId).withSelfRel(),
+                hateoasLinkGenerator.listLink(listId).withRel("list"));
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header(ListVersionHeader.NAME, Integer.toString(todoListModel.version()))
+                .body(todoListReadModelResponse);
     }
 
     @RequestMapping("/lists/default")
     @ResponseBody
-    ResponseEntity<TodoListReadModelResponse> showDefault(@AuthenticationPrincipal AuthenticatedUser authenticatedUser) {
+    ResponseEntity<TodoListReadModelResponse> showDefault(@AuthenticationPrincipal AuthenticatedUser authenticatedUser,
+                                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         User user = authenticatedUser.getUser();
-        TodoListModel todoListModel = listApplicationService.getDefault(user);
-        TodoListReadModelResponse todoListReadModelResponse = todoListModelResourceTransformer.transform(user.getDefaultListId(), todoListModel, Date.from(clock.instant()));
-        todoListReadModelResponse.add(hateoasLinkGenerator.listLink(user.getDefaultListId().get()).withSelfRel());
-        return ResponseEntity.ok(todoListReadModelResponse);
+        return showList(user, user.getDefaultListId(), ifNoneMatch);
     }
 
     @RequestMapping("/lists/{listId}")
     @ResponseBody
     ResponseEntity<TodoListReadModelResponse> show(@AuthenticationPrincipal AuthenticatedUser authenticatedUser,
-                                                   @PathVariable String listId) {
-        TodoListModel todoListModel = listApplicationService.get(authenticatedUser.getUser(), new ListId(listId));
-        TodoListReadModelResponse todoListReadModelResponse = todoListModelResourceTransformer.transform(new ListId(listId), todoListModel, Date.from(clock.instant()));
-        todoListReadModelResponse.add(hateoasLinkGenerator.listLink(listId).withSelfRel());
-        return ResponseEntity.ok(todoListReadModelResponse);
+                                                   @PathVariable String listId,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return showList(authenticatedUser.getUser(), new ListId(listId), ifNoneMatch);
+    }
+
+    // A client still holding a current tag is answered from the list's version alone, before the list is loaded or transformed
+    private ResponseEntity<TodoListReadModelResponse> showList(User user, ListId listId, String ifNoneMatch) {
+        Date now = Date.from(clock.instant());
+        MoveLinks moveLinks = MoveLinksContextHolder.get().orElse(MoveLinks.EACH);
+        if (ifNoneMatch != null) {
+            Optional<Versioned<String>> matchingETag = todoListETag.matching(ifNoneMatch, now, moveLinks, () -> listApplicationService.getVersion(user, listId));
+            if (matchingETag.isPresent()) {
+                return notModified(matchingETag.get());
+            }
+        }
+        Versioned<TodoListModel> todoListModel = listApplicationService.getVersioned(user, listId);
+        Versioned<String> eTag = todoListETag.of(todoListModel, now, moveLinks);
+        if (ifNoneMatch != null && todoListETag.matchesAny(ifNoneMatch)) {
+            return notModified(eTag);
+        }
+        TodoListReadModelResponse todoListReadModelResponse = todoListModelResourceTransformer.transform(listId, todoListModel.model(), now);
+        todoListReadModelResponse.add(hateoasLinkGenerator.listLink(listId.get()).withSelfRel());
+        return ResponseEntity.ok()
+                .header(ListVersionHeader.NAME, Integer.toString(eTag.version()))
+                .eTag(eTag.model())
+                .body(todoListReadModelResponse);
+    }
+
+    private ResponseEntity<TodoListReadModelResponse> notModified(Versioned<String> eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .header(ListVersionHeader.NAME, Integer.toString(eTag.version()))
+                .eTag(eTag.model())
+                .build();
     }
 
     @GetMapping(value = "/lists/{listId}/completed")
     @ResponseBody
     ResponseEntity<CompletedListResponse> showCompleted(@AuthenticationPrincipal AuthenticatedUser authenticatedUser,
-                                                        @PathVariable String listId) {
+                                                        @PathVariable String listId,
+                                                        @RequestParam(required = false) String before,
+                                                        @RequestParam(required = false) Integer limit) {
+        int pageSize = limit == null ? CompletedTodoPage.DefaultSize() : limit;
+        CompletedTodoPage completedTodoPage = listApplicationService.getCompleted(
+                authenticatedUser.getUser(), new ListId(listId), Option.apply(before), pageSize);
         CompletedListDTO completedListDTO = new CompletedListDTO(
-                asJava(listApplicationService.getCompleted(authenticatedUser.getUser(), new ListId(listId)))
+                asJava(completedTodoPage.completedTodos())
                         .stream()
                         .map(completedTodo -> new CompletedTodoDTO(completedTodo.task(), completedTodo.completedAt()))
                         .collect(toList()));
         CompletedListResponse completedListResponse = new CompletedListResponse(completedListDTO);
-        completedListResponse.add(hateoasLinkGenerator.completedListLink(listId).withSelfRel());
+        Link selfLink = before == null && limit == null
+                ? hateoasLinkGenerator.completedListLink(listId)
+                : hateoasLinkGenerator.completedListPageLink(listId, before, limit);
+        completedListResponse.add(selfLink.withSelfRel());
+        toJava(completedTodoPage.next()).ifPresent(next ->
+                completedListResponse.add(hateoasLinkGenerator.completedListPageLink(listId, next.token(), limit).withRel("next")));
         return ResponseEntity.ok(completedListResponse);
     }
 
@@ -0,0 +1,176 @@
+package com.doerapispring.web;
+
+import com.doerapispring.authentication.AccessDeniedException;
+import org.springframework.context.annotation.Primary;
+import org.springframework.hateoas.Link;
+import org.springframework.stereotype.Component;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+@Primary
+@Component
+public class TemplatedHateoasLinkGenerator implements HateoasLinkGenerator {
+    private final LinkTemplate listResources = LinkTemplate.of(methodOn(ResourcesController.class).list(null));
+    private final LinkTemplate signup;
+    private final LinkTemplate login;
+    private final LinkTemplate baseResources = LinkTemplate.of(methodOn(ResourcesController.class).base());
+    private final LinkTemplate deleteTodo = LinkTemplate.of(methodOn(TodosController.class).delete(null, null, 0));
+    private final LinkTemplate displaceTodo = LinkTemplate.of(methodOn(TodosController.class).displace(null, null, null));
+    private final LinkTemplate updateTodo = LinkTemplate.of(methodOn(TodosController.class).update(null, null, 0, null));
+    private final LinkTemplate completeTodo = LinkTemplate.of(methodOn(TodosController.class).complete(null, null, 0));
+    private final LinkTemplate moveTodo = LinkTemplate.of(methodOn(TodosController.class).move(null, null, 0, 0));
+    private final LinkTemplate listPullTodos = LinkTemplate.of(methodOn(TodosController.class).pull(null, null));
+    private final LinkTemplate rootResources = LinkTemplate.of(methodOn(ResourcesController.class).root());
+    private final LinkTemplate historyResources = LinkTemplate.of(methodOn(ResourcesController.class).history(null));
+    private final LinkTemplate listUnlock = LinkTemplate.of(methodOn(ListsController.class).unlock(null, null));
+    private final LinkTemplate listImport = LinkTemplate.of(methodOn(ListsController.class).importTodos(null, null, null));
+    private final LinkTemplate listCommands = LinkTemplate.of(methodOn(TodosController.class).performCommands(null, null, null));
+    private final LinkTemplate list = LinkTemplate.of(methodOn(ListsController.class).show(null, null, null));
+    private final LinkTemplate createTodo = LinkTemplate.of(methodOn(TodosController.class).create(null, null, null));
+    private final LinkTemplate createDeferredTodo = LinkTemplate.of(methodOn(TodosController.class).createDeferred(null, null, null));
+    private final LinkTemplate completedListPage = LinkTemplate.of(methodOn(ListsController.class).showCompleted(null, null, null, null));
+    private final LinkTemplate listEscalateTodo = LinkTemplate.of(methodOn(TodosController.class).escalate(null, null));
+    private final LinkTemplate showLists = LinkTemplate.of(methodOn(ListsController.class).showAll(null));
+    private final LinkTemplate createLists = LinkTemplate.of(methodOn(ListsController.class).create(null, null));
+    private final LinkTemplate defaultList = LinkTemplate.of(methodOn(ListsController.class).showDefault(null, null));
+    private final LinkTemplate setDefaultList = LinkTemplate.of(methodOn(ListsController.class).setDefault(null, null));
+
+    public TemplatedHateoasLinkGenerator() {
+        try {
+            signup = LinkTemplate.of(methodOn(UserSessionsController.class).signup(null));
+            login = LinkTemplate.of(methodOn(UserSessionsController.class).login(null));
+        } catch (AccessDeniedException e) {
+            throw new RuntimeException("Failed to create link", e);
+        }
+    }
+
+    @Override
+    public Link signupLink() {
+        return signup.expand();
+    }
+
+    @Override
+    public Link loginLink() {
+        return login.expand();
+    }
+
+    @Override
+    public Link baseResourcesLink() {
+        return baseResources.expand();
+    }
+
+    @Override
+    public Link rootResourcesLink() {
+        return rootResources.expand();
+    }
+
+    @Override
+    public Link historyResourcesLink() {
+        return historyResources.expand();
+    }
+
+    @Override
+    public Link listResourcesLink() {
+        return listResources.expand();
+    }
+
+    @Override
+    public Link deleteTodoLink(String listId, int index) {
+        return deleteTodo.expand(listId, index);
+    }
+
+    @Override
+    public Link displaceTodoLink(String listId) {
+        return displaceTodo.expand(listId);
+    }
+
+    @Override
+    public Link updateTodoLink(String listId, int index) {
+        return updateTodo.expand(listId, index);
+    }
+
+    @Override
+    public Link completeTodoLink(String listId, int index) {
+        return completeTodo.expand(listId, index);
+    }
+
+    @Override
+    public Link moveTodoLink(String listId, int index, int targetIndex) {
+        return moveTodo.expand(listId, index, targetIndex);
+    }
+
+    @Override
+    public Link moveTodoTemplateLink(String listId) {
+        return moveTodo.expand(listId);
+    }
+
+    @Override
+    public Link listPullTodosLink(String listId) {
+        return listPullTodos.expand(listId);
+    }
+
+    @Override
+    public Link listUnlockLink(String listId) {
+        return listUnlock.expand(listId);
+    }
+
+    @Override
+    public Link listImportLink(String listId) {
+        return listImport.expand(listId);
+    }
+
+    @Override
+    public Link listCommandsLink(String listId) {
+        return listCommands.expand(listId);
+    }
+
+    @Override
+    public Link listLink(String listId) {
+        return list.expand(listId);
+    }
+
+    @Override
+    public Link createTodoLink(String listId) {
+        return createTodo.expand(listId);
+    }
+
+    @Override
+    public Link createDeferredTodoLink(String listId) {
+        return createDeferredTodo.expand(listId);
+    }
+
+    @Override
+    public Link completedListLink(String listId) {
+        return completedListPage.expandPath(listId);
+    }
+
+    @Override
+    public Link completedListPageLink(String listId, String before, Integer limit) {
+        return completedListPage.expandWithParameters(new Object[]{listId}, before, limit);
+    }
+
+    @Override
+    public Link listEscalateTodoLink(String listId) {
+        return listEscalateTodo.expand(listId);
+    }
+
+    @Override
+    public Link showListsLink() {
+        return showLists.expand();
+    }
+
+    @Override
+    public Link createListsLink() {
+        return createLists.expand();
+    }
+
+    @Override
+    public Link defaultListLink() {
+        return defaultList.expand();
+    }
+
+    @Override
+    public Link setDefaultListLink(String listId) {
+        return setDefaultList.expand(listId);
+    }
+}
@@ -0,0 +1,38 @@
+package com.doerapispring.web
+
+import java.util.Date
+
+import com.doerapispring.domain.DomainException
+import com.doerapispring.domain.events._
+import org.springframework.stereotype.Component
+
+case class TodoListCommandDTO(`type`: String, index: Integer, targetIndex: Integer, task: String)
+
+// Commands are named after the link relations of the operations they stand for, and dates are always the server's
+@Component
+class TodoListCommandTransformer {
+  def transform(todoListCommandDTO: TodoListCommandDTO, now: Date): TodoListEvent = {
+    todoListCommandDTO.`type` match {
+      case "create" => TodoAddedEvent(task(todoListCommandDTO))
+      case "createDeferred" => DeferredTodoAddedEvent(task(todoListCommandDTO))
+      case "displace" => TodoDisplacedEvent(task(todoListCommandDTO))
+      case "update" => TodoUpdatedEvent(index(todoListCommandDTO), task(todoListCommandDTO))
+      case "complete" => TodoCompletedEvent(index(todoListCommandDTO), now)
+      case "delete" => TodoDeletedEvent(index(todoListCommandDTO))
+      case "move" => TodoMovedEvent(index(todoListCommandDTO), required[Integer](todoListCommandDTO, "targetIndex", todoListCommandDTO.targetIndex))
+      case "pull" => PulledEvent()
+      case "escalate" => EscalatedEvent()
+      case "unlock" => UnlockedEvent(now)
+      case commandType => throw new DomainException("unknown command " + commandType)
+    }
+  }
+
+  private def index(todoListCommandDTO: TodoListCommandDTO): Int = required[Integer](todoListCommandDTO, "index", todoListCommandDTO.index)
+
+  private def task(todoListCommandDTO: TodoListCommandDTO): String = required(todoListCommandDTO, "task", todoListCommandDTO.task)
+
+  // Indices are checked boxed, since an absent one would otherwise be unboxed to 0 on the way in
+  private def required[T](todoListCommandDTO: TodoListCommandDTO, field: String, value: T): T = {
+    Option(value).getOrElse(throw new DomainException(todoListCommandDTO.`type` + " command is missing its " + field))
+  }
+}
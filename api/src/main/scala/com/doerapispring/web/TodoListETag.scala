@@ -0,0 +1,46 @@
+package com.doerapispring.web
+
+import java.util.function.IntSupplier
+import java.util.{Date, Optional}
+
+import com.doerapispring.domain.{TodoListModel, Versioned}
+import org.springframework.stereotype.Component
+
+import scala.jdk.OptionConverters._
+import scala.util.Try
+
+@Component
+class TodoListETag {
+  // Weak while unlocked, since the time left in the body counts down while the list itself stays the same
+  def of(todoListModel: Versioned[TodoListModel], now: Date, moveLinks: MoveLinks): Versioned[String] = {
+    val unchangedUntil = TodoListModel.unchangedUntil(todoListModel.model, now)
+    val weak = if (TodoListModel.unlockDurationMs(todoListModel.model, now) > 0) "W/" else ""
+    Versioned(s"""$weak"${todoListModel.version}.${unchangedUntil.getTime}.${moveLinks.name().toLowerCase}"""", todoListModel.version)
+  }
+
+  def matchesAny(ifNoneMatch: String): Boolean = {
+    ifNoneMatch.trim == "*"
+  }
+
+  def matching(ifNoneMatch: String, now: Date, moveLinks: MoveLinks, version: IntSupplier): Optional[Versioned[String]] = {
+    lazy val currentVersion = version.getAsInt
+    ifNoneMatch.split(",").iterator
+      .map(tag => tag.trim)
+      .flatMap(tag => parse(tag.stripPrefix("W/")).map { case (tagVersion, unchangedUntil, tagMoveLinks) =>
+        (Versioned(tag, tagVersion), unchangedUntil, tagMoveLinks)
+      })
+      .find { case (tag, unchangedUntil, tagMoveLinks) =>
+        tagMoveLinks == moveLinks.name().toLowerCase && unchangedUntil > now.getTime && tag.version == currentVersion
+      }
+      .map { case (tag, _, _) => tag }
+      .toJava
+  }
+
+  private def parse(tag: String): Option[(Int, Long, String)] = {
+    Option.when(tag.length > 2 && tag.startsWith("\"") && tag.endsWith("\""))(tag.substring(1, tag.length - 1))
+      .flatMap(value => value.split("\\.", -1) match {
+        case Array(version, unchangedUntil, moveLinks) => Try((version.toInt, unchangedUntil.toLong, moveLinks)).toOption
+        case _ => None
+      })
+  }
+}
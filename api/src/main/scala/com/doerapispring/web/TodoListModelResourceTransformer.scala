@@ -3,19 +3,38 @@ package com.doerapispring.web
 import java.util.Date
 
 import com.doerapispring.domain.{ListId, TodoListModel}
+import io.micrometer.core.instrument.{MeterRegistry, Timer}
 import org.springframework.stereotype.Component
 
 
 @Component
-class TodoListModelResourceTransformer(val hateoasLinkGenerator: HateoasLinkGenerator) {
+class TodoListModelResourceTransformer(val hateoasLinkGenerator: HateoasLinkGenerator, meterRegistry: MeterRegistry) {
+  private val transformTimers: Map[MoveLinks, Timer] = MoveLinks.values()
+    .map(moveLinks => moveLinks -> Timer.builder("doer.lists.transform")
+      .description("Time taken to work out what can be done with a list and build its response")
+      .tag("moves", moveLinks.name())
+      .publishPercentileHistogram()
+      .register(meterRegistry))
+    .toMap
+
   def transform(listId: ListId, todoListModel: TodoListModel, now: Date): TodoListReadModelResponse = {
+    transformTimers(MoveLinksContextHolder.get().orElse(MoveLinks.EACH)).recordCallable(() => transformUntimed(listId, todoListModel, now))
+  }
+
+  private def transformUntimed(listId: ListId, todoListModel: TodoListModel, now: Date): TodoListReadModelResponse = {
     val capabilities = TodoListModel.capabilities(todoListModel, now)
+    val todos = TodoListModel.getTodos(todoListModel)
+    val deferredTodos = TodoListModel.getDeferredTodos(todoListModel, now)
+    // Templated move links stand in for a move link per todo and target, which grow with the square of the list
+    val templatedMoves = MoveLinksContextHolder.get().orElse(MoveLinks.EACH) == MoveLinks.TEMPLATED
     val todoListReadModelDTO = TodoListReadModelDTO(
       "now",
       "later",
-      TodoListModel.getTodos(todoListModel).map(todo => TodoDTO(todo.task)),
-      TodoListModel.getDeferredTodos(todoListModel, now).map(todo => TodoDTO(todo.task)),
-      TodoListModel.unlockDurationMs(todoListModel, now)
+      todos.map(todo => TodoDTO(todo.task)).toList,
+      deferredTodos.map(todo => TodoDTO(todo.task)).toList,
+      TodoListModel.unlockDurationMs(todoListModel, now),
+      Option.when(templatedMoves && todos.nonEmpty)(IndexRangeDTO(0, todos.size - 1)),
+      Option.when(templatedMoves && deferredTodos.nonEmpty)(IndexRangeDTO(todoListModel.demarcationIndex, todoListModel.demarcationIndex + deferredTodos.size - 1))
     )
     todoListReadModelDTO.add(hateoasLinkGenerator.createDeferredTodoLink(listId.get()).withRel("createDeferred"))
     todoListReadModelDTO.add(hateoasLinkGenerator.completedListLink(listId.get()).withRel("completed"))
@@ -34,23 +53,33 @@ class TodoListModelResourceTransformer(val hateoasLinkGenerator: HateoasLinkGene
     if (capabilities.escalate.isDefined) {
       todoListReadModelDTO.add(hateoasLinkGenerator.listEscalateTodoLink(listId.get()).withRel("escalate"))
     }
+    if (todoListReadModelDTO.moveRange.isDefined) {
+      todoListReadModelDTO.add(hateoasLinkGenerator.moveTodoTemplateLink(listId.get()).withRel("move"))
+    }
+    if (todoListReadModelDTO.deferredMoveRange.isDefined) {
+      todoListReadModelDTO.add(hateoasLinkGenerator.moveTodoTemplateLink(listId.get()).withRel("moveDeferred"))
+    }
     todoListReadModelDTO.todos.zipWithIndex.foreach { case (todoDTO, index) =>
       val todoCapabilities = capabilities.todoCapabilities(index)
-      todoDTO.add(hateoasLinkGenerator.deleteTodoLink(listId.get(), todoCapabilities.delete.index).withRel("delete"))
-      todoDTO.add(hateoasLinkGenerator.updateTodoLink(listId.get(), todoCapabilities.update("").index).withRel("update"))
-      todoDTO.add(hateoasLinkGenerator.completeTodoLink(listId.get(), todoCapabilities.complete(now).index).withRel("complete"))
-      todoCapabilities.move.foreach(todoMovedEvent => {
-        todoDTO.add(hateoasLinkGenerator.moveTodoLink(listId.get(), todoMovedEvent.index, todoMovedEvent.targetIndex).withRel("move"))
-      })
+      todoDTO.add(hateoasLinkGenerator.deleteTodoLink(listId.get(), todoCapabilities.index).withRel("delete"))
+      todoDTO.add(hateoasLinkGenerator.updateTodoLink(listId.get(), todoCapabilities.index).withRel("update"))
+      todoDTO.add(hateoasLinkGenerator.completeTodoLink(listId.get(), todoCapabilities.index).withRel("complete"))
+      if (!templatedMoves) {
+        todoCapabilities.moveTargets.foreach(targetIndex => {
+          todoDTO.add(hateoasLinkGenerator.moveTodoLink(listId.get(), todoCapabilities.index, targetIndex).withRel("move"))
+        })
+      }
     }
     todoListReadModelDTO.deferredTodos.zipWithIndex.foreach { case (todoDTO, index) =>
       val todoCapabilities = capabilities.deferredTodoCapabilities(index)
-      todoDTO.add(hateoasLinkGenerator.deleteTodoLink(listId.get(), todoCapabilities.delete.index).withRel("delete"))
-      todoDTO.add(hateoasLinkGenerator.updateTodoLink(listId.get(), todoCapabilities.update("").index).withRel("update"))
-      todoDTO.add(hateoasLinkGenerator.completeTodoLink(listId.get(), todoCapabilities.complete(now).index).withRel("complete"))
-      todoCapabilities.move.foreach(todoMovedEvent => {
-        todoDTO.add(hateoasLinkGenerator.moveTodoLink(listId.get(), todoMovedEvent.index, todoMovedEvent.targetIndex).withRel("move"))
-      })
+      todoDTO.add(hateoasLinkGenerator.deleteTodoLink(listId.get(), todoCapabilities.index).withRel("delete"))
+      todoDTO.add(hateoasLinkGenerator.updateTodoLink(listId.get(), todoCapabilities.index).withRel("update"))
+      todoDTO.add(hateoasLinkGenerator.completeTodoLink(listId.get(), todoCapabilities.index).withRel("complete"))
+      if (!templatedMoves) {
+        todoCapabilities.moveTargets.foreach(targetIndex => {
+          todoDTO.add(hateoasLinkGenerator.moveTodoLink(listId.get(), todoCapabilities.index, targetIndex).withRel("move"))
+        })
+      }
     }
     val todoListReadModelResponse = TodoListReadModelResponse(todoListReadModelDTO)
     todoListReadModelResponse
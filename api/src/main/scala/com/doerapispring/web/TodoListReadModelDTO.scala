@@ -1,9 +1,13 @@
 package com.doerapispring.web
 
+import com.fasterxml.jackson.annotation.JsonInclude
 import org.springframework.hateoas.RepresentationModel
 
+@JsonInclude(JsonInclude.Include.NON_ABSENT)
 case class TodoListReadModelDTO(name: String,
                                 deferredName: String,
                                 todos: List[TodoDTO],
                                 deferredTodos: List[TodoDTO],
-                                unlockDuration: Long) extends RepresentationModel[TodoListReadModelDTO]
+                                unlockDuration: Long,
+                                moveRange: Option[IndexRangeDTO] = None,
+                                deferredMoveRange: Option[IndexRangeDTO] = None) extends RepresentationModel[TodoListReadModelDTO]
@@ -0,0 +1,97 @@
+package db.migration
+
+import java.sql.{PreparedStatement, ResultSet, Timestamp}
+import java.util.Date
+
+import com.fasterxml.jackson.databind.{DeserializationFeature, ObjectMapper}
+import com.fasterxml.jackson.module.scala.DefaultScalaModule
+import db.migration.V36__populateCompletedTodos._
+import org.flywaydb.core.api.migration.{BaseJavaMigration, Context}
+import org.springframework.jdbc.core.{BatchPreparedStatementSetter, JdbcTemplate, RowMapper}
+import org.springframework.jdbc.datasource.SingleConnectionDataSource
+
+import scala.jdk.CollectionConverters._
+import scala.util.{Failure, Success, Try}
+
+object V36__populateCompletedTodos {
+  private val EventsPackage = "com.doerapispring.domain.events."
+
+  case class Todo(task: String)
+
+  case class CompletedTodo(task: String, completedAt: Date)
+
+  case class Snapshot(todos: List[Todo], completedTodos: Option[List[CompletedTodo]])
+
+  case class Event(index: Int, targetIndex: Int, task: String, completedAt: Date)
+}
+
+class V36__populateCompletedTodos extends BaseJavaMigration {
+  private val objectMapper = new ObjectMapper()
+    .registerModule(DefaultScalaModule)
+    .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+
+  override def migrate(context: Context): Unit = {
+    val jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection, true))
+    val listRowMapper: RowMapper[(String, String)] = (rs: ResultSet, _: Int) => (rs.getString("user_id"), rs.getString("list_id"))
+    jdbcTemplate.query("SELECT user_id, list_id FROM todo_lists", listRowMapper).asScala.foreach { case (userId, listId) =>
+      val completedTodos = completedFromSnapshot(jdbcTemplate, userId, listId)
+      jdbcTemplate.batchUpdate(
+        "INSERT INTO completed_todos (user_id, list_id, version, task, completed_at) VALUES (?, ?, ?, ?, ?)",
+        new BatchPreparedStatementSetter {
+          override def setValues(ps: PreparedStatement, i: Int): Unit = {
+            val (version, completedTodo) = completedTodos(i)
+            ps.setString(1, userId)
+            ps.setString(2, listId)
+            ps.setInt(3, version)
+            ps.setString(4, completedTodo.task)
+            ps.setTimestamp(5, Timestamp.from(completedTodo.completedAt.toInstant))
+          }
+
+          override def getBatchSize: Int = completedTodos.size
+        })
+      jdbcTemplate.update(
+        "UPDATE todo_lists SET data = (data::jsonb - 'completedTodos')::varchar WHERE user_id = ? AND list_id = ?", userId, listId)
+    }
+  }
+
+  private def completedFromSnapshot(jdbcTemplate: JdbcTemplate, userId: String, listId: String): Vector[(Int, CompletedTodo)] = {
+    val snapshotRowMapper: RowMapper[(String, Int)] = (rs: ResultSet, _: Int) => (rs.getString("data"), rs.getInt("version"))
+    val (data, snapshotVersion) = jdbcTemplate.queryForObject(
+      "SELECT data, version FROM todo_lists WHERE user_id = ? AND list_id = ?", snapshotRowMapper, userId, listId)
+    val snapshot = objectMapper.readValue(data, classOf[Snapshot])
+    val alreadyCompleted = snapshot.completedTodos.toList.flatten.zipWithIndex
+      .map { case (completedTodo, index) => (-(index + 1), completedTodo) }
+    val eventRowMapper: RowMapper[(String, String, Int)] = (rs: ResultSet, _: Int) =>
+      (rs.getString("data"), rs.getString("event_class"), rs.getInt("version"))
+    val completedSince = jdbcTemplate.query(
+      "SELECT data, event_class, version FROM list_events WHERE user_id = ? AND list_id = ? AND version > ? ORDER BY version ASC",
+      eventRowMapper, userId, listId, Int.box(snapshotVersion)).asScala.toList
+      .foldLeft(Try((snapshot.todos.map(todo => todo.task).toVector, List[(Int, CompletedTodo)]()))) {
+        case (Success((tasks, completed)), (eventData, eventClass, version)) => Try {
+          val event = objectMapper.readValue(eventData, classOf[Event])
+          val completedTodo = Option.when(eventClass == EventsPackage + "TodoCompletedEvent")(event)
+            .flatMap(event => tasks.lift(event.index).map(task => (version, CompletedTodo(task, event.completedAt))))
+          (replay(tasks, eventClass.stripPrefix(EventsPackage), event), completedTodo.toList ++ completed)
+        }
+        case (failure, _) => failure
+      } match {
+      case Success((_, completed)) => completed
+      case Failure(exception) =>
+        throw new IllegalStateException(s"Could not replay the completed todos of list $listId for user $userId", exception)
+    }
+    (completedSince ++ alreadyCompleted).toVector
+  }
+
+  // Only where each task sits matters here, so the tail is replayed against the tasks alone
+  private def replay(tasks: Vector[String], eventName: String, event: Event): Vector[String] = {
+    eventName match {
+      case "TodoAddedEvent" | "TodoDisplacedEvent" => event.task +: tasks
+      case "DeferredTodoAddedEvent" => tasks :+ event.task
+      case "TodoUpdatedEvent" => tasks.updated(event.index, event.task)
+      case "TodoCompletedEvent" | "TodoDeletedEvent" => tasks.patch(event.index, Nil, 1)
+      case "TodoMovedEvent" => tasks.patch(event.index, Nil, 1).patch(event.targetIndex, List(tasks(event.index)), 0)
+      case "EscalatedEvent" => tasks.updated(1, tasks(2)).updated(2, tasks(1))
+      case _ => tasks
+    }
+  }
+}
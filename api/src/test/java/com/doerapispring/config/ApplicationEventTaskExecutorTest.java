@@ -0,0 +1,133 @@
+package com.doerapispring.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.doerapispring.config.ApplicationEventTaskExecutor.SaturationPolicy.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ApplicationEventTaskExecutorTest {
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ApplicationEventTaskExecutor applicationEventTaskExecutor;
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        applicationEventTaskExecutor.shutdown();
+    }
+
+    @Test
+    public void execute_whenSaturated_withCallerRuns_runsOnCallingThread() {
+        saturate(CALLER_RUNS);
+        AtomicReference<Thread> thread = new AtomicReference<>();
+
+        applicationEventTaskExecutor.execute(() -> thread.set(Thread.currentThread()));
+
+        assertThat(thread.get()).isEqualTo(Thread.currentThread());
+        assertThat(registry.get("doer.events.saturated").tag("executor", "someExecutor").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void execute_whenSaturated_withReject_throws() {
+        saturate(REJECT);
+
+        assertThatThrownBy(() -> applicationEventTaskExecutor.execute(() -> {
+        })).isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    public void execute_whenSaturated_withBlock_throwsOnceTimeoutElapses() {
+        saturate(BLOCK);
+
+        assertThatThrownBy(() -> applicationEventTaskExecutor.execute(() -> {
+        })).isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    public void execute_whenSaturated_withBlock_queuesOnceRoomFreesUp() throws Exception {
+        saturate(BLOCK);
+        CountDownLatch ran = new CountDownLatch(1);
+        new Thread(() -> {
+            sleep(10);
+            release.countDown();
+        }).start();
+
+        applicationEventTaskExecutor.execute(ran::countDown);
+
+        assertThat(ran.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void stop_drainsQueuedEvents() {
+        applicationEventTaskExecutor = executor(REJECT);
+        AtomicInteger delivered = new AtomicInteger();
+        applicationEventTaskExecutor.execute(() -> await(release));
+        applicationEventTaskExecutor.execute(delivered::incrementAndGet);
+        new Thread(() -> {
+            sleep(10);
+            release.countDown();
+        }).start();
+
+        applicationEventTaskExecutor.stop();
+
+        assertThat(delivered.get()).isEqualTo(1);
+        assertThat(applicationEventTaskExecutor.isRunning()).isFalse();
+    }
+
+    @Test
+    public void execute_recordsQueueingLag() throws Exception {
+        applicationEventTaskExecutor = executor(REJECT);
+        CountDownLatch ran = new CountDownLatch(1);
+
+        applicationEventTaskExecutor.execute(ran::countDown);
+
+        assertThat(ran.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(registry.get("doer.events.lag").tag("executor", "someExecutor").timer().count()).isEqualTo(1);
+        assertThat(registry.get("executor.queued").tag("name", "someExecutor").gauge()).isNotNull();
+    }
+
+    private void saturate(ApplicationEventTaskExecutor.SaturationPolicy saturationPolicy) {
+        applicationEventTaskExecutor = executor(saturationPolicy);
+        CountDownLatch started = new CountDownLatch(1);
+        applicationEventTaskExecutor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        await(started);
+        applicationEventTaskExecutor.execute(() -> await(release));
+    }
+
+    private ApplicationEventTaskExecutor executor(ApplicationEventTaskExecutor.SaturationPolicy saturationPolicy) {
+        ApplicationEventTaskExecutor executor = new ApplicationEventTaskExecutor("someExecutor", 1, 1, 1, saturationPolicy, Duration.ofMillis(200), Duration.ofSeconds(1));
+        executor.initialize();
+        executor.bindTo(registry);
+        executor.start();
+        return executor;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.doerapispring.config;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class KeyedTaskExecutorTest {
+    private KeyedTaskExecutor keyedTaskExecutor;
+
+    @Before
+    public void setUp() {
+        keyedTaskExecutor = new KeyedTaskExecutor("someLane", 4, 100, ApplicationEventTaskExecutor.SaturationPolicy.BLOCK, Duration.ofSeconds(1), Duration.ofSeconds(1));
+        keyedTaskExecutor.afterPropertiesSet();
+        keyedTaskExecutor.start();
+    }
+
+    @After
+    public void tearDown() {
+        keyedTaskExecutor.destroy();
+    }
+
+    @Test
+    public void laneFor_sameKey_runsTasksInSubmissionOrder() {
+        List<Integer> ran = Collections.synchronizedList(new ArrayList<>());
+
+        IntStream.range(0, 50).forEach(task -> keyedTaskExecutor.laneFor("someKey").execute(() -> ran.add(task)));
+        keyedTaskExecutor.stop();
+
+        assertThat(ran).isEqualTo(IntStream.range(0, 50).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void laneFor_differentLanes_runTasksInParallel() throws Exception {
+        Object someKey = IntStream.range(0, 100).boxed()
+            .filter(key -> keyedTaskExecutor.laneFor(key) != keyedTaskExecutor.laneFor("someKey"))
+            .findFirst()
+            .get();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch ran = new CountDownLatch(1);
+
+        keyedTaskExecutor.laneFor("someKey").execute(() -> {
+            try {
+                release.await(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        keyedTaskExecutor.laneFor(someKey).execute(ran::countDown);
+
+        assertThat(ran.await(500, TimeUnit.MILLISECONDS)).isTrue();
+        release.countDown();
+    }
+
+    @Test
+    public void stop_drainsEveryLane() {
+        List<Integer> ran = Collections.synchronizedList(new ArrayList<>());
+
+        IntStream.range(0, 20).forEach(key -> keyedTaskExecutor.laneFor(key).execute(() -> ran.add(key)));
+        keyedTaskExecutor.stop();
+
+        assertThat(ran).hasSize(20);
+        assertThat(keyedTaskExecutor.isRunning()).isFalse();
+    }
+}
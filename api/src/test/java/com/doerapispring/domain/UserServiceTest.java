@@ -81,17 +81,16 @@ public class UserServiceTest {
         userService.create(identifier);
 
         java.util.List<Todo> todos = Collections.emptyList();
-        java.util.List<CompletedTodo> completedTodos = Collections.emptyList();
         verify(todoListModelSnapshotRepository).save(
                 new UserId(identifier),
                 todoList.getListId(),
                 new Snapshot<>(
                         new TodoListModel(
-                                CollectionConverters.asScala(todos).toList(),
-                                CollectionConverters.asScala(completedTodos).toList(),
+                                CollectionConverters.asScala(todos).toVector(),
                                 new Date(0L),
                                 0),
-                        Date.from(instant)));
+                        Date.from(instant),
+                        Snapshot.InitialVersion()));
     }
 
     @Test
@@ -50,6 +50,11 @@ class MockHateoasLinkGenerator implements HateoasLinkGenerator {
         return new Link(MOCK_BASE_URL + "/lists/" + listId + "/todos/" + index + "/moveTodo/" + targetIndex);
     }
 
+    @Override
+    public Link moveTodoTemplateLink(String listId) {
+        return new Link(MOCK_BASE_URL + "/lists/" + listId + "/todos/{index}/moveTodo/{targetIndex}");
+    }
+
     @Override
     public Link listPullTodosLink(String listId) {
         return new Link(MOCK_BASE_URL + "/lists/" + listId + "/pullTodos");
@@ -70,6 +75,16 @@ class MockHateoasLinkGenerator implements HateoasLinkGenerator {
         return new Link(MOCK_BASE_URL + "/lists/" + listId + "/unlockTodos");
     }
 
+    @Override
+    public Link listImportLink(String listId) {
+        return new Link(MOCK_BASE_URL + "/lists/" + listId + "/import");
+    }
+
+    @Override
+    public Link listCommandsLink(String listId) {
+        return new Link(MOCK_BASE_URL + "/lists/" + listId + "/commands");
+    }
+
     @Override
     public Link listLink(String listId) {
         return new Link(MOCK_BASE_URL + "/lists/" + listId);
@@ -90,6 +105,11 @@ class MockHateoasLinkGenerator implements HateoasLinkGenerator {
         return new Link(MOCK_BASE_URL + "/lists/" + listId + "/completedList");
     }
 
+    @Override
+    public Link completedListPageLink(String listId, String before, Integer limit) {
+        return new Link(MOCK_BASE_URL + "/lists/" + listId + "/completedList?before=" + before + "&limit=" + limit);
+    }
+
     @Override
     public Link listEscalateTodoLink(String listId) {
         return new Link(MOCK_BASE_URL + "/lists/" + listId + "/escalateTodo");
@@ -0,0 +1,84 @@
+package com.doerapispring.web;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TemplatedHateoasLinkGeneratorTest {
+    private final HateoasLinkGenerator hateoasLinkGeneratorImpl = new HateoasLinkGeneratorImpl();
+    private final HateoasLinkGenerator templatedHateoasLinkGenerator = new TemplatedHateoasLinkGenerator();
+
+    @After
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void links_matchTheLinksBuiltFromControllerMethods() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setScheme("https");
+        request.setServerName("someHost");
+        request.setServerPort(8443);
+        request.setContextPath("/someContext");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        assertThat(hrefs(templatedHateoasLinkGenerator)).isEqualTo(hrefs(hateoasLinkGeneratorImpl));
+        assertThat(templatedHateoasLinkGenerator.completedListLink("someListId").getHref())
+            .isEqualTo("https://someHost:8443/someContext/v1/lists/someListId/completed");
+        assertThat(templatedHateoasLinkGenerator.completedListPageLink("someListId", null, 20).getHref())
+            .isEqualTo("https://someHost:8443/someContext/v1/lists/someListId/completed?limit=20{&before}");
+        assertThat(templatedHateoasLinkGenerator.moveTodoTemplateLink("someListId").getHref())
+            .isEqualTo("https://someHost:8443/someContext/v1/lists/someListId/todos/{index}/move/{targetIndex}");
+    }
+
+    @Test
+    public void links_outsideOfARequest_matchTheLinksBuiltFromControllerMethods() {
+        assertThat(hrefs(templatedHateoasLinkGenerator)).isEqualTo(hrefs(hateoasLinkGeneratorImpl));
+    }
+
+    private List<String> hrefs(HateoasLinkGenerator hateoasLinkGenerator) {
+        List<Function<HateoasLinkGenerator, Link>> links = Arrays.asList(
+            HateoasLinkGenerator::signupLink,
+            HateoasLinkGenerator::loginLink,
+            HateoasLinkGenerator::baseResourcesLink,
+            HateoasLinkGenerator::rootResourcesLink,
+            HateoasLinkGenerator::historyResourcesLink,
+            HateoasLinkGenerator::listResourcesLink,
+            generator -> generator.deleteTodoLink("someListId", 3),
+            generator -> generator.displaceTodoLink("someListId"),
+            generator -> generator.updateTodoLink("someListId", 3),
+            generator -> generator.completeTodoLink("someListId", 3),
+            generator -> generator.moveTodoLink("someListId", 3, 11),
+            generator -> generator.moveTodoLink("some list/\u00efd", 0, 1),
+            generator -> generator.moveTodoTemplateLink("someListId"),
+            generator -> generator.listPullTodosLink("someListId"),
+            generator -> generator.listUnlockLink("someListId"),
+            generator -> generator.listImportLink("someListId"),
+            generator -> generator.listCommandsLink("someListId"),
+            generator -> generator.listLink("someListId"),
+            generator -> generator.createTodoLink("someListId"),
+            generator -> generator.createDeferredTodoLink("someListId"),
+            generator -> generator.completedListLink("someListId"),
+            generator -> generator.completedListPageLink("someListId", "1591056000000.7", 20),
+            generator -> generator.completedListPageLink("someListId", "some before&", null),
+            generator -> generator.completedListPageLink("someListId", null, 20),
+            generator -> generator.listEscalateTodoLink("someListId"),
+            HateoasLinkGenerator::showListsLink,
+            HateoasLinkGenerator::createListsLink,
+            HateoasLinkGenerator::defaultListLink,
+            generator -> generator.setDefaultListLink("someListId"));
+        return links.stream()
+            .map(link -> link.apply(hateoasLinkGenerator).getHref())
+            .collect(Collectors.toList());
+    }
+}
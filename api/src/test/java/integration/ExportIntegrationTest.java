@@ -0,0 +1,109 @@
+package integration;
+
+import com.doerapispring.web.SessionTokenDTO;
+import com.doerapispring.web.UserSessionsApiService;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ExportIntegrationTest extends AbstractWebAppJUnit4SpringContextTests {
+    private final HttpHeaders httpHeaders = new HttpHeaders();
+    private final HttpHeaders otherHttpHeaders = new HttpHeaders();
+
+    @Autowired
+    private UserSessionsApiService userSessionsApiService;
+
+    @Override
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        SessionTokenDTO signupSessionToken = userSessionsApiService.signup("test@email.com", "password");
+        httpHeaders.add("Session-Token", signupSessionToken.getToken());
+        SessionTokenDTO otherSignupSessionToken = userSessionsApiService.signup("other@email.com", "password");
+        otherHttpHeaders.add("Session-Token", otherSignupSessionToken.getToken());
+    }
+
+    @Test
+    public void export_writesEachListsStateFollowedByItsEventsAsNewlineDelimitedJson() throws Exception {
+        String defaultListHref = JsonPath.parse(mockMvc.perform(get("/v1/lists/default")
+                .headers(httpHeaders))
+                .andReturn().getResponse().getContentAsString()).read("$._links.self.href", String.class);
+        addTodo(httpHeaders, defaultListHref, "create", "some task");
+        addTodo(httpHeaders, defaultListHref, "createDeferred", "some deferred task");
+        String listsHref = JsonPath.parse(mockMvc.perform(post("/v1/lists")
+                .headers(httpHeaders)
+                .content("{\"name\": \"someOtherList\"}"))
+                .andReturn().getResponse().getContentAsString()).read("$._links.lists.href", String.class);
+        String otherListHref = JsonPath.parse(mockMvc.perform(get(listsHref)
+                .headers(httpHeaders))
+                .andReturn().getResponse().getContentAsString()).read("$.lists[1]._links.list.href", String.class);
+        addTodo(httpHeaders, otherListHref, "create", "some other list task");
+        String otherUsersListHref = JsonPath.parse(mockMvc.perform(get("/v1/lists/default")
+                .headers(otherHttpHeaders))
+                .andReturn().getResponse().getContentAsString()).read("$._links.self.href", String.class);
+        addTodo(otherHttpHeaders, otherUsersListHref, "create", "someone else's task");
+
+        MvcResult exportResult = mockMvc.perform(get("/v1/export")
+                .headers(httpHeaders))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String export = mockMvc.perform(asyncDispatch(exportResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.parseMediaType("application/x-ndjson")))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(export).endsWith("\n").doesNotContain("someone else's task");
+        Map<String, List<DocumentContext>> linesByList = new LinkedHashMap<>();
+        for (String line : export.split("\n")) {
+            DocumentContext documentContext = JsonPath.parse(line);
+            linesByList.computeIfAbsent(documentContext.read("$.listId", String.class), listId -> new ArrayList<>())
+                    .add(documentContext);
+        }
+        assertThat(linesByList).hasSize(2);
+        for (List<DocumentContext> lines : linesByList.values()) {
+            DocumentContext state = lines.get(0);
+            assertThat(state.read("$.type", String.class)).isEqualTo("list");
+            List<Integer> versions = new ArrayList<>();
+            for (DocumentContext event : lines.subList(1, lines.size())) {
+                assertThat(event.read("$.type", String.class)).isEqualTo("event");
+                versions.add(event.read("$.version", Integer.class));
+            }
+            assertThat(versions).isSorted().doesNotHaveDuplicates();
+            assertThat(versions.get(versions.size() - 1)).isEqualTo(state.read("$.version", Integer.class));
+        }
+        List<DocumentContext> defaultListLines = linesByList.values().iterator().next();
+        List<String> tasks = defaultListLines.get(0).read("$.state.todos[*].task");
+        assertThat(tasks).containsExactly("some task", "some deferred task");
+        assertThat(defaultListLines.subList(1, defaultListLines.size()))
+                .extracting(event -> event.read("$.event", String.class))
+                .containsExactly("TodoAddedEvent", "DeferredTodoAddedEvent");
+    }
+
+    private void addTodo(HttpHeaders headers, String listHref, String rel, String task) throws Exception {
+        String createHref = JsonPath.parse(mockMvc.perform(get(listHref)
+                .headers(headers))
+                .andReturn().getResponse().getContentAsString()).read("$.list._links." + rel + ".href", String.class);
+        mockMvc.perform(post(createHref)
+                .headers(headers)
+                .content("{\"task\": \"" + task + "\"}"))
+                .andExpect(status().isCreated());
+    }
+}
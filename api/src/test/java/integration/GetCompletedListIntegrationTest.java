@@ -15,6 +15,7 @@ import java.text.SimpleDateFormat;
 import java.util.Date;
 
 import static com.jayway.jsonpath.matchers.JsonPathMatchers.hasJsonPath;
+import static com.jayway.jsonpath.matchers.JsonPathMatchers.hasNoJsonPath;
 import static com.jayway.jsonpath.matchers.JsonPathMatchers.isJson;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -87,4 +88,71 @@ public class GetCompletedListIntegrationTest extends AbstractWebAppJUnit4SpringC
         Date completedAt = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssZ").parse(completedAtString);
         Assertions.assertThat(completedAt).isToday();
     }
+
+    @Test
+    public void list_withLimit_pagesThroughCompletedTodosNewestFirst() throws Exception {
+        String completedHref = null;
+        for (String task : new String[]{"first task", "second task", "third task"}) {
+            String createHref = JsonPath.parse(mockMvc.perform(get("/v1/lists/default")
+                    .headers(httpHeaders))
+                    .andReturn().getResponse().getContentAsString()).read("$.list._links.create.href", String.class);
+            String completeHref = JsonPath.parse(mockMvc.perform(post(createHref)
+                    .content("{\"task\":\"" + task + "\"}")
+                    .headers(httpHeaders))
+                    .andReturn().getResponse().getContentAsString()).read("$.list.todos[0]._links.complete.href", String.class);
+            completedHref = JsonPath.parse(mockMvc.perform(post(completeHref)
+                    .headers(httpHeaders))
+                    .andReturn().getResponse().getContentAsString()).read("$.list._links.completed.href", String.class);
+        }
+
+        String firstPage = mockMvc.perform(get(completedHref)
+                .param("limit", "2")
+                .headers(httpHeaders))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(firstPage, hasJsonPath("$.list.todos[*].task", contains("third task", "second task")));
+        String nextHref = JsonPath.parse(firstPage).read("$._links.next.href", String.class);
+        Assertions.assertThat(nextHref).startsWith(completedHref + "?before=").endsWith("&limit=2");
+
+        String secondPage = mockMvc.perform(get(nextHref)
+                .headers(httpHeaders))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(secondPage, hasJsonPath("$.list.todos[*].task", contains("first task")));
+        assertThat(secondPage, hasJsonPath("$._links.self.href", equalTo(nextHref)));
+        assertThat(secondPage, hasNoJsonPath("$._links.next"));
+    }
+
+    @Test
+    public void list_beforeACursor_showsTodosCompletedEarlier() throws Exception {
+        String completedHref = null;
+        for (String task : new String[]{"first task", "second task"}) {
+            String createHref = JsonPath.parse(mockMvc.perform(get("/v1/lists/default")
+                    .headers(httpHeaders))
+                    .andReturn().getResponse().getContentAsString()).read("$.list._links.create.href", String.class);
+            String completeHref = JsonPath.parse(mockMvc.perform(post(createHref)
+                    .content("{\"task\":\"" + task + "\"}")
+                    .headers(httpHeaders))
+                    .andReturn().getResponse().getContentAsString()).read("$.list.todos[0]._links.complete.href", String.class);
+            completedHref = JsonPath.parse(mockMvc.perform(post(completeHref)
+                    .headers(httpHeaders))
+                    .andReturn().getResponse().getContentAsString()).read("$.list._links.completed.href", String.class);
+        }
+        String nextHref = JsonPath.parse(mockMvc.perform(get(completedHref)
+                .param("limit", "1")
+                .headers(httpHeaders))
+                .andReturn().getResponse().getContentAsString()).read("$._links.next.href", String.class);
+        String before = nextHref.replaceAll(".*before=([^&]+).*", "$1");
+
+        String responseContent = mockMvc.perform(get(completedHref)
+                .param("before", before)
+                .headers(httpHeaders))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(responseContent, hasJsonPath("$.list.todos[*].task", contains("first task")));
+        assertThat(responseContent, hasNoJsonPath("$._links.next"));
+    }
 }
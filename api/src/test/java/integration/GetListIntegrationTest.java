@@ -9,6 +9,7 @@ import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
 
 import static com.jayway.jsonassert.impl.matcher.IsCollectionWithSize.hasSize;
 import static org.hamcrest.Matchers.containsString;
@@ -17,6 +18,7 @@ import static org.hamcrest.core.IsEqual.equalTo;
 import static org.hamcrest.text.IsEmptyString.isEmptyString;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -86,6 +88,29 @@ public class GetListIntegrationTest extends AbstractWebAppJUnit4SpringContextTes
                 .andExpect(jsonPath("$.list.deferredTodos[1]._links.move[1].href", not(isEmptyString())));
     }
 
+    @Test
+    public void list_whenClientHoldsTheCurrentTag_isNotModified() throws Exception {
+        MvcResult listResult = mockMvc.perform(get("/v1/lists/default")
+                .headers(httpHeaders))
+                .andExpect(status().isOk())
+                .andReturn();
+        String eTag = listResult.getResponse().getHeader(HttpHeaders.ETAG);
+        String version = listResult.getResponse().getHeader("List-Version");
+
+        mockMvc.perform(get("/v1/lists/default")
+                .headers(httpHeaders)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(header().string("List-Version", version));
+        mockMvc.perform(get("/v1/lists/default")
+                .headers(httpHeaders)
+                .header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(header().string("List-Version", version));
+    }
+
     @Test
     public void defaultListActions() throws Exception {
         mockMvc.perform(get("/v1/lists/default")
@@ -0,0 +1,98 @@
+package integration;
+
+import com.doerapispring.web.SessionTokenDTO;
+import com.doerapispring.web.UserSessionsApiService;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "doer.lists.import.max-todos=3")
+public class ImportTodosIntegrationTest extends AbstractWebAppJUnit4SpringContextTests {
+    private final HttpHeaders httpHeaders = new HttpHeaders();
+    private String listHref;
+
+    @Autowired
+    private UserSessionsApiService userSessionsApiService;
+
+    @Override
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        SessionTokenDTO signupSessionToken = userSessionsApiService.signup("test@email.com", "password");
+        httpHeaders.add("Session-Token", signupSessionToken.getToken());
+        String unlockHref = JsonPath.parse(mockMvc.perform(get("/v1/lists/default")
+                .headers(httpHeaders))
+                .andReturn().getResponse().getContentAsString()).read("$.list._links.unlock.href", String.class);
+        listHref = JsonPath.parse(mockMvc.perform(post(unlockHref)
+                .headers(httpHeaders))
+                .andReturn().getResponse().getContentAsString()).read("$._links.list.href", String.class);
+    }
+
+    @Test
+    public void importTodos_fromNewlineDelimitedJson_addsThemToTheLaterList() throws Exception {
+        mockMvc.perform(post(listHref + "/import")
+                .headers(httpHeaders)
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .content("{\"task\": \"some task\"}\n" +
+                        "{\"task\": \"some done task\", \"completedAt\": 1591012800000}\n" +
+                        "{\"task\": \"some other task\"}\n"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("List-Version", notNullValue()))
+                .andExpect(jsonPath("$.list.deferredTodos[*].task", contains("some task", "some other task")))
+                .andExpect(jsonPath("$._links.self.href", equalTo(listHref + "/import")))
+                .andExpect(jsonPath("$._links.list.href", equalTo(listHref)));
+
+        mockMvc.perform(get(listHref + "/completed")
+                .headers(httpHeaders))
+                .andExpect(jsonPath("$.list.todos[*].task", contains("some done task")));
+    }
+
+    @Test
+    public void importTodos_fromAJsonArray_addsThemToTheLaterList() throws Exception {
+        mockMvc.perform(post(listHref + "/import")
+                .headers(httpHeaders)
+                .content("[{\"task\": \"some task\"}, {\"task\": \"some other task\"}]"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.list.deferredTodos[*].task", contains("some task", "some other task")));
+    }
+
+    @Test
+    public void importTodos_whenATodoHasNoTask_importsNothing() throws Exception {
+        mockMvc.perform(post(listHref + "/import")
+                .headers(httpHeaders)
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .content("{\"task\": \"some task\"}\n{\"task\": \"\"}\n"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get(listHref)
+                .headers(httpHeaders))
+                .andExpect(jsonPath("$.list.deferredTodos", empty()));
+    }
+
+    @Test
+    public void importTodos_whenThereAreMoreTodosThanAllowed_importsNothing() throws Exception {
+        mockMvc.perform(post(listHref + "/import")
+                .headers(httpHeaders)
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .content("{\"task\": \"one\"}\n{\"task\": \"two\"}\n{\"task\": \"three\"}\n{\"task\": \"four\"}\n"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get(listHref)
+                .headers(httpHeaders))
+                .andExpect(jsonPath("$.list.deferredTodos", empty()));
+    }
+}
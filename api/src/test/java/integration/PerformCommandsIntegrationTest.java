@@ -0,0 +1,97 @@
+package integration;
+
+import com.doerapispring.web.SessionTokenDTO;
+import com.doerapispring.web.UserSessionsApiService;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class PerformCommandsIntegrationTest extends AbstractWebAppJUnit4SpringContextTests {
+    private final HttpHeaders httpHeaders = new HttpHeaders();
+    private String listHref;
+
+    @Autowired
+    private UserSessionsApiService userSessionsApiService;
+
+    @Override
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        SessionTokenDTO signupSessionToken = userSessionsApiService.signup("test@email.com", "password");
+        httpHeaders.add("Session-Token", signupSessionToken.getToken());
+        listHref = JsonPath.parse(mockMvc.perform(get("/v1/lists/default")
+                .headers(httpHeaders))
+                .andReturn().getResponse().getContentAsString()).read("$._links.self.href", String.class);
+    }
+
+    @Test
+    public void performCommands_performsEachCommandOnTheListTheOnesBeforeItLeft() throws Exception {
+        mockMvc.perform(post(listHref + "/commands")
+                .headers(httpHeaders)
+                .content("[" +
+                        "{\"type\": \"create\", \"task\": \"some task\"}," +
+                        "{\"type\": \"create\", \"task\": \"some other task\"}," +
+                        "{\"type\": \"move\", \"index\": 1, \"targetIndex\": 0}," +
+                        "{\"type\": \"createDeferred\", \"task\": \"some deferred task\"}," +
+                        "{\"type\": \"escalate\"}]"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("List-Version", notNullValue()))
+                .andExpect(jsonPath("$.list.todos[*].task", contains("some task", "some deferred task")))
+                .andExpect(jsonPath("$._links.self.href", equalTo(listHref + "/commands")))
+                .andExpect(jsonPath("$._links.list.href", equalTo(listHref)));
+    }
+
+    @Test
+    public void performCommands_whenEscalatingWithoutALaterTodo_performsNone() throws Exception {
+        mockMvc.perform(post(listHref + "/commands")
+                .headers(httpHeaders)
+                .content("[" +
+                        "{\"type\": \"create\", \"task\": \"some task\"}," +
+                        "{\"type\": \"create\", \"task\": \"some other task\"}," +
+                        "{\"type\": \"escalate\"}]"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get(listHref)
+                .headers(httpHeaders))
+                .andExpect(jsonPath("$.list.todos", empty()));
+    }
+
+    @Test
+    public void performCommands_whenATodoIsNoLongerThere_performsNone() throws Exception {
+        mockMvc.perform(post(listHref + "/commands")
+                .headers(httpHeaders)
+                .content("[" +
+                        "{\"type\": \"create\", \"task\": \"some task\"}," +
+                        "{\"type\": \"delete\", \"index\": 0}," +
+                        "{\"type\": \"update\", \"index\": 0, \"task\": \"some updated task\"}]"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get(listHref)
+                .headers(httpHeaders))
+                .andExpect(jsonPath("$.list.todos", empty()));
+    }
+
+    @Test
+    public void performCommands_whenACommandIsMissingAField_performsNone() throws Exception {
+        mockMvc.perform(post(listHref + "/commands")
+                .headers(httpHeaders)
+                .content("[{\"type\": \"create\", \"task\": \"some task\"}, {\"type\": \"complete\"}]"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get(listHref)
+                .headers(httpHeaders))
+                .andExpect(jsonPath("$.list.todos", empty()));
+    }
+}
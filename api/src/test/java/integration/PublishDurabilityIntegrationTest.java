@@ -0,0 +1,73 @@
+package integration;
+
+import com.doerapispring.web.SessionTokenDTO;
+import com.doerapispring.web.UserSessionsApiService;
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "doer.events.durability.endpoints.TodosController.create=GROUP_COMMIT")
+public class PublishDurabilityIntegrationTest extends AbstractWebAppJUnit4SpringContextTests {
+
+    private final HttpHeaders httpHeaders = new HttpHeaders();
+
+    @Autowired
+    private UserSessionsApiService userSessionsApiService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        SessionTokenDTO signupSessionToken = userSessionsApiService.signup("test@email.com", "password");
+        httpHeaders.add("Session-Token", signupSessionToken.getToken());
+    }
+
+    @Test
+    public void publish_usesTheDurabilityConfiguredForTheEndpoint() throws Exception {
+        String createHref = JsonPath.parse(mockMvc.perform(get("/v1/lists/default")
+                .headers(httpHeaders))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).read("$.list._links.create.href", String.class);
+        long groupCommits = published("GROUP_COMMIT");
+        long synchronous = published("SYNCHRONOUS");
+
+        mockMvc.perform(post(createHref)
+                .content("{\"task\":\"read the things\"}")
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(httpHeaders))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post(createHref)
+                .content("{\"task\":\"write the things\"}")
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(httpHeaders))
+                .andExpect(status().isCreated());
+        String displaceHref = JsonPath.parse(mockMvc.perform(get("/v1/lists/default")
+                .headers(httpHeaders))
+                .andReturn().getResponse().getContentAsString()).read("$.list._links.displace.href", String.class);
+        mockMvc.perform(post(displaceHref)
+                .content("{\"task\":\"check the things\"}")
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(httpHeaders))
+                .andExpect(status().isAccepted());
+
+        assertThat(published("GROUP_COMMIT") - groupCommits).isEqualTo(2);
+        assertThat(published("SYNCHRONOUS") - synchronous).isEqualTo(1);
+    }
+
+    private long published(String durability) {
+        return meterRegistry.get("doer.events.publish").tag("durability", durability).timer().count();
+    }
+}
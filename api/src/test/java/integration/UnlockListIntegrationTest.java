@@ -7,11 +7,15 @@ import org.junit.Before;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MvcResult;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
 import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -44,4 +48,41 @@ public class UnlockListIntegrationTest extends AbstractWebAppJUnit4SpringContext
                 .headers(httpHeaders))
                 .andExpect(jsonPath("$.list._links", not(containsString("unlock"))));
     }
+
+    @Test
+    public void unlock_givesTheVersionOfTheUnlockedList() throws Exception {
+        String unlockHref = JsonPath.parse(mockMvc.perform(get("/v1/lists/default")
+                .headers(httpHeaders))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).read("$.list._links.unlock.href", String.class);
+        String unlockedVersion = mockMvc.perform(post(unlockHref)
+                .headers(httpHeaders))
+                .andExpect(header().string("List-Version", matchesPattern("\\d+")))
+                .andReturn().getResponse().getHeader("List-Version");
+
+        MvcResult listResult = mockMvc.perform(get("/v1/lists/default")
+                .headers(httpHeaders))
+                .andExpect(status().isOk())
+                .andExpect(header().string("List-Version", unlockedVersion))
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/\"" + unlockedVersion + ".")))
+                .andReturn();
+        mockMvc.perform(get("/v1/lists/default")
+                .headers(httpHeaders)
+                .header(HttpHeaders.IF_NONE_MATCH, listResult.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("List-Version", unlockedVersion));
+        String createHref = JsonPath.parse(listResult.getResponse().getContentAsString()).read("$.list._links.create.href", String.class);
+
+        mockMvc.perform(post(createHref)
+                .content("{\"task\":\"some task\"}")
+                .headers(httpHeaders)
+                .header(HttpHeaders.IF_MATCH, unlockedVersion))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("List-Version", String.valueOf(Integer.parseInt(unlockedVersion) + 1)));
+        mockMvc.perform(post(createHref)
+                .content("{\"task\":\"some other task\"}")
+                .headers(httpHeaders)
+                .header(HttpHeaders.IF_MATCH, unlockedVersion))
+                .andExpect(status().isPreconditionFailed());
+    }
 }
@@ -0,0 +1,160 @@
+package com.doerapispring.domain
+
+import java.time.Duration
+import java.util.{Date, Optional}
+import java.util.concurrent.{CompletableFuture, CountDownLatch, TimeUnit}
+
+import com.doerapispring.domain.events.{DeferredTodoAddedEvent, PulledEvent, TodoCompletedEvent, TodoListEvent}
+import org.assertj.core.api.Assertions.{assertThat, assertThatThrownBy}
+import org.junit.{After, Before, Test}
+import org.mockito.ArgumentMatchers.{any, eq => eqTo}
+import org.mockito.Mockito._
+
+import scala.collection.mutable.ListBuffer
+
+class TodoListCommandExecutorTest {
+  private val userId = new UserId("someUserId")
+  private val listId = new ListId("someListId")
+  private val todoListModel = TodoListModel(Vector(), new Date(0L), 0)
+  private var todoListRepository: OwnedObjectVersionedReadRepository[TodoListModel, UserId, ListId] = _
+  private var publisher: RecordingDomainEventPublisher = _
+  private var todoListBulkWriteRepository: TodoListBulkWriteRepository = _
+  private var todoListCommandExecutor: TodoListCommandExecutor = _
+
+  private class RecordingDomainEventPublisher extends DomainEventPublisher[TodoListModel, TodoListEvent, UserId, ListId] {
+    val expectedVersions: ListBuffer[Int] = ListBuffer()
+    @volatile var onPublish: Int => Unit = _ => ()
+
+    override def publish(todoListModel: TodoListModel, todoListEvent: TodoListEvent, userId: UserId, listId: ListId, expectedVersion: Int): TodoListModel = {
+      expectedVersions.synchronized(expectedVersions += expectedVersion)
+      onPublish(expectedVersion)
+      todoListModel
+    }
+  }
+
+  @Before
+  def setUp(): Unit = {
+    todoListRepository = mock(classOf[OwnedObjectVersionedReadRepository[TodoListModel, UserId, ListId]])
+    publisher = new RecordingDomainEventPublisher
+    todoListBulkWriteRepository = mock(classOf[TodoListBulkWriteRepository])
+    todoListCommandExecutor = new TodoListCommandExecutor(todoListRepository, publisher, todoListBulkWriteRepository, new VersionConflictRetryPolicy(3, Duration.ofMillis(1)), Optional.empty())
+    when(todoListRepository.findVersioned(userId, listId)).thenReturn(Some(Versioned(todoListModel, 3)))
+  }
+
+  @After
+  def tearDown(): Unit = {
+    ExpectedVersionContextHolder.clear()
+  }
+
+  @Test
+  def perform_publishesAgainstTheLoadedVersion(): Unit = {
+    todoListCommandExecutor.perform(userId, listId, PulledEvent())
+
+    assertThat(publisher.expectedVersions.toList).isEqualTo(List(3))
+  }
+
+  @Test
+  def perform_whenQueuedBehindAnotherCommand_startsFromTheModelItProduced(): Unit = {
+    val publishing = new CountDownLatch(1)
+    val release = new CountDownLatch(1)
+    publisher.onPublish = expectedVersion => if (expectedVersion == 3) {
+      publishing.countDown()
+      release.await(1, TimeUnit.SECONDS)
+    }
+    val first = CompletableFuture.runAsync(() => todoListCommandExecutor.perform(userId, listId, PulledEvent()))
+    publishing.await(1, TimeUnit.SECONDS)
+    val queuedThread = new Thread(() => todoListCommandExecutor.perform(userId, listId, PulledEvent()))
+    queuedThread.start()
+    while (queuedThread.getState != Thread.State.WAITING) Thread.sleep(1)
+
+    release.countDown()
+    first.get(1, TimeUnit.SECONDS)
+    queuedThread.join(1000)
+
+    assertThat(publisher.expectedVersions.toList).isEqualTo(List(3, 4))
+    verify(todoListRepository, times(1)).findVersioned(userId, listId)
+  }
+
+  @Test
+  def perform_afterPreviousCommandsFinish_loadsTheListAgain(): Unit = {
+    todoListCommandExecutor.perform(userId, listId, PulledEvent())
+    todoListCommandExecutor.perform(userId, listId, PulledEvent())
+
+    assertThat(publisher.expectedVersions.toList).isEqualTo(List(3, 3))
+    verify(todoListRepository, times(2)).findVersioned(userId, listId)
+  }
+
+  @Test
+  def perform_whenPublishConflicts_reloadsTheListBeforeRetrying(): Unit = {
+    publisher.onPublish = expectedVersion => if (expectedVersion == 3) throw new VersionConflictException("conflict")
+    when(todoListRepository.findVersioned(userId, listId))
+      .thenReturn(Some(Versioned(todoListModel, 3)))
+      .thenReturn(Some(Versioned(todoListModel, 5)))
+
+    todoListCommandExecutor.perform(userId, listId, PulledEvent())
+
+    assertThat(publisher.expectedVersions.toList).isEqualTo(List(3, 5))
+  }
+
+  @Test
+  def perform_whenListIsOwned_startsFromTheModelThisNodeLastProduced(): Unit = {
+    val listOwnership = mock(classOf[ListOwnership])
+    when(listOwnership.claim(userId, listId)).thenReturn(Some(Versioned(todoListModel, 7)))
+    val owningExecutor = new TodoListCommandExecutor(todoListRepository, publisher, todoListBulkWriteRepository, new VersionConflictRetryPolicy(3, Duration.ofMillis(1)), Optional.of(listOwnership))
+
+    owningExecutor.perform(userId, listId, PulledEvent())
+
+    assertThat(publisher.expectedVersions.toList).isEqualTo(List(7))
+    verify(todoListRepository, never()).findVersioned(userId, listId)
+    verify(listOwnership).produced(userId, listId, Some(Versioned(todoListModel, 8)))
+  }
+
+  @Test
+  def perform_whenListIsOwnedElsewhere_failsWithoutPublishing(): Unit = {
+    val listOwnership = mock(classOf[ListOwnership])
+    when(listOwnership.claim(userId, listId)).thenThrow(new ListOwnedElsewhereException("someListId", "http://someOtherNode:8080"))
+    val owningExecutor = new TodoListCommandExecutor(todoListRepository, publisher, todoListBulkWriteRepository, new VersionConflictRetryPolicy(3, Duration.ofMillis(1)), Optional.of(listOwnership))
+
+    assertThatThrownBy(() => owningExecutor.perform(userId, listId, PulledEvent())).isInstanceOf(classOf[ListOwnedElsewhereException])
+    assertThat(publisher.expectedVersions.toList).isEqualTo(List())
+  }
+
+  @Test
+  def perform_whenExpectedVersionIsBehind_failsWithoutLoadingOrPublishing(): Unit = {
+    when(todoListRepository.findVersion(userId, listId)).thenReturn(Some(3))
+    ExpectedVersionContextHolder.set(2)
+
+    assertThatThrownBy(() => todoListCommandExecutor.perform(userId, listId, PulledEvent())).isInstanceOf(classOf[ListVersionMismatchException])
+    verify(todoListRepository, never()).findVersioned(userId, listId)
+    assertThat(publisher.expectedVersions.toList).isEqualTo(List())
+  }
+
+  @Test
+  def perform_whenExpectedVersionMatches_publishes(): Unit = {
+    when(todoListRepository.findVersion(userId, listId)).thenReturn(Some(3))
+    ExpectedVersionContextHolder.set(3)
+
+    todoListCommandExecutor.perform(userId, listId, PulledEvent())
+
+    assertThat(publisher.expectedVersions.toList).isEqualTo(List(3))
+  }
+
+  @Test
+  def performAll_appendsEveryEventTogetherWithTheModelTheyProduce(): Unit = {
+    val completedAt = new Date(1L)
+    when(todoListBulkWriteRepository.appendAndSnapshot(eqTo(userId), eqTo(listId), eqTo(3), any(), any()))
+      .thenReturn(6)
+
+    val todoListModel = todoListCommandExecutor.performAll(userId, listId, todoList => ImportedTodo.events(todoList, List(
+      ImportedTodo("someTask", None),
+      ImportedTodo("someOtherTask", Some(completedAt)))))
+
+    assertThat(todoListModel.model.todos).isEqualTo(List(Todo("someTask")))
+    assertThat(todoListModel.version).isEqualTo(6)
+    verify(todoListBulkWriteRepository).appendAndSnapshot(userId, listId, 3, List(
+      DeferredTodoAddedEvent("someTask"),
+      DeferredTodoAddedEvent("someOtherTask"),
+      TodoCompletedEvent(1, completedAt, Some("someOtherTask"))), todoListModel.model)
+    assertThat(publisher.expectedVersions.toList).isEqualTo(List())
+  }
+}
@@ -5,6 +5,8 @@ import java.time.temporal.ChronoUnit
 import java.util.Date
 
 import com.doerapispring.domain.events._
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.module.scala.DefaultScalaModule
 import org.assertj.core.api.Assertions
 import org.assertj.core.api.Assertions.assertThat
 import org.junit.Test
@@ -14,7 +16,7 @@ import scala.util.chaining._
 
 //noinspection AccessorLikeMethodIsUnit
 class TodoListModelTest {
-  private val todoListValue: TodoListModel = new TodoListModel(scala.collection.immutable.List.empty, scala.collection.immutable.List.empty, Date.from(Instant.EPOCH), 0)
+  private val todoListValue: TodoListModel = new TodoListModel(scala.collection.immutable.Vector.empty, Date.from(Instant.EPOCH), 0)
 
   @Test
   def add_addsToNowList(): Unit = {
@@ -98,23 +100,28 @@ class TodoListModelTest {
   def update_whenTodoWithIdentifierExists_updatesTodo(): Unit = {
     val todoListValue = TodoListModel.add(this.todoListValue, "someTask")
       .pipe(todoList => TodoListModel.update(todoList, 0, "someOtherTask"))
-    val todo :: _ = TodoListModel.getTodos(todoListValue)
+    val todo +: _ = TodoListModel.getTodos(todoListValue)
     Assertions.assertThat(todo.task).isEqualTo("someOtherTask")
   }
 
   @Test
-  def complete_whenTodoWithIdentifierExists_completesTodo_placingItBeforeExistingCompletedTodos(): Unit = {
-    assertThat(this.todoListValue.completedTodos.asJavaCollection).isEmpty()
+  def complete_whenTodoWithIdentifierExists_removesTodo(): Unit = {
     val completedAt = Date.from(Instant.now())
     val todoListValue = TodoListModel.add(this.todoListValue, "someTask")
       .pipe(todoList => TodoListModel.add(todoList, "someOtherTask"))
       .pipe(todoList => TodoListModel.complete(todoList, 0, completedAt))
-      .pipe(todoList => TodoListModel.complete(todoList, 0, completedAt))
-    assertThat(todoListValue.todos.asJavaCollection).isEmpty()
-    assertThat(todoListValue.completedTodos.asJavaCollection).containsExactly(
-      CompletedTodo("someTask", completedAt),
-      CompletedTodo("someOtherTask", completedAt)
-    )
+    assertThat(todoListValue.todos.asJavaCollection).containsExactly(Todo("someTask"))
+    assertThat(todoListValue.demarcationIndex).isEqualTo(1)
+  }
+
+  @Test
+  def record_whenTodoIsCompleted_recordsItsTask(): Unit = {
+    val completedAt = Date.from(Instant.now())
+    val todoListValue = TodoListModel.add(this.todoListValue, "someTask")
+      .pipe(todoList => TodoListModel.add(todoList, "someOtherTask"))
+
+    assertThat(TodoListModel.record(todoListValue, TodoCompletedEvent(1, completedAt)))
+      .isEqualTo(TodoCompletedEvent(1, completedAt, Some("someTask")))
   }
 
   @Test
@@ -164,6 +171,24 @@ class TodoListModelTest {
     assertThat(TodoListModel.getDeferredTodos(todoListValue3, now).asJavaCollection).extracting("task").containsExactlyElementsOf(tasks.asJavaCollection)
   }
 
+  @Test
+  def move_whenTasksRepeat_movesTheTodoAtIndex(): Unit = {
+    val todoList = TodoListModel(Vector(Todo("someTask"), Todo("someOtherTask"), Todo("someTask")), Date.from(Instant.EPOCH), 0)
+
+    assertThat(TodoListModel.move(todoList, 0, 2).todos).isEqualTo(Vector(Todo("someOtherTask"), Todo("someTask"), Todo("someTask")))
+  }
+
+  @Test
+  def move_betweenAnyIndexes_placesTodoAtTarget(): Unit = {
+    val todos = (0 until 7).map(index => Todo(s"someTask$index")).toVector
+    val todoList = TodoListModel(todos, Date.from(Instant.EPOCH), 0)
+
+    for (index <- todos.indices; targetIndex <- todos.indices) {
+      val expected = todos.patch(index, Nil, 1).patch(targetIndex, List(todos(index)), 0)
+      assertThat(TodoListModel.move(todoList, index, targetIndex).todos).isEqualTo(expected)
+    }
+  }
+
   @Test
   def pull_whenThereAreNoImmediateTodos_fillsFromPostponedList(): Unit = {
     val todoListValue = TodoListModel.addDeferred(this.todoListValue, "firstLater")
@@ -381,4 +406,52 @@ class TodoListModelTest {
     assertThat(deferredTodoCapabilities2.move.head).isEqualTo(TodoMovedEvent(3, 2))
     assertThat(deferredTodoCapabilities2.move(1)).isEqualTo(TodoMovedEvent(3, 3))
   }
-}
\ No newline at end of file
+
+  @Test
+  def capabilities_forTodosWithTheSameTask_useEachTodosOwnIndex(): Unit = {
+    val now = Date.from(Instant.now())
+    val capabilities = TodoListModel.capabilities(TodoListModel(Vector(Todo("someTask"), Todo("someTask"), Todo("someTask")), now, 1), now)
+
+    assertThat(capabilities.todoCapabilities.map(_.index).toList).isEqualTo(List(0))
+    assertThat(capabilities.deferredTodoCapabilities.map(_.index).toList).isEqualTo(List(1, 2))
+    assertThat(capabilities.deferredTodoCapabilities.last.move.toList).isEqualTo(List(TodoMovedEvent(2, 1), TodoMovedEvent(2, 2)))
+  }
+
+  @Test
+  def permits_eventsMatchingTheListsCapabilities(): Unit = {
+    val now = Date.from(Instant.now())
+    val todoList = TodoListModel.add(this.todoListValue, "task 1")
+      .pipe(todoList => TodoListModel.add(todoList, "task 2"))
+      .pipe(todoList => TodoListModel.addDeferred(todoList, "task 3"))
+
+    assertThat(TodoListModel.permits(todoList, EscalatedEvent(), now)).isTrue
+    assertThat(TodoListModel.permits(todoList, TodoDisplacedEvent("task 4"), now)).isTrue
+    assertThat(TodoListModel.permits(todoList, TodoUpdatedEvent(1, "task 2 updated"), now)).isTrue
+    assertThat(TodoListModel.permits(todoList, TodoMovedEvent(1, 0), now)).isTrue
+  }
+
+  @Test
+  def permits_doesNotPermitEventsOutsideTheListsCapabilities(): Unit = {
+    val now = Date.from(Instant.now())
+    val todoList = TodoListModel.add(this.todoListValue, "task 1")
+      .pipe(todoList => TodoListModel.addDeferred(todoList, "task 2"))
+
+    assertThat(TodoListModel.permits(todoList, EscalatedEvent(), now)).isFalse
+    assertThat(TodoListModel.permits(todoList, TodoDisplacedEvent("task 3"), now)).isFalse
+    assertThat(TodoListModel.permits(todoList, TodoUpdatedEvent(2, "task 3"), now)).isFalse
+    assertThat(TodoListModel.permits(todoList, TodoCompletedEvent(1, now), now)).isFalse
+    assertThat(TodoListModel.permits(todoList, TodoMovedEvent(0, 1), now)).isFalse
+  }
+
+  @Test
+  def todoListModel_readsSnapshotsWrittenBeforeTodosWereIndexed(): Unit = {
+    val objectMapper = new ObjectMapper().registerModule(DefaultScalaModule)
+    val snapshot = """{"todos":[{"task":"someTask"},{"task":"someOtherTask"}],"lastUnlockedAt":0,"demarcationIndex":1}"""
+
+    val todoList = objectMapper.readValue(snapshot, classOf[TodoListModel])
+
+    assertThat(todoList).isEqualTo(TodoListModel(Vector(Todo("someTask"), Todo("someOtherTask")), new Date(0L), 1))
+    assertThat(todoList.todos).isInstanceOf(classOf[Vector[_]])
+    assertThat(objectMapper.writeValueAsString(todoList)).isEqualTo(snapshot)
+  }
+}
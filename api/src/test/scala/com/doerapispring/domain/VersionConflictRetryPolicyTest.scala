@@ -0,0 +1,51 @@
+package com.doerapispring.domain
+
+import java.time.Duration
+
+import org.assertj.core.api.Assertions.{assertThat, assertThatThrownBy}
+import org.junit.Test
+
+class VersionConflictRetryPolicyTest {
+  private val versionConflictRetryPolicy = new VersionConflictRetryPolicy(3, Duration.ofMillis(1))
+
+  @Test
+  def retry_whenOperationSucceeds_returnsItsResult(): Unit = {
+    assertThat(versionConflictRetryPolicy.retry(() => "someResult")).isEqualTo("someResult")
+  }
+
+  @Test
+  def retry_whenOperationConflicts_retriesUntilItSucceeds(): Unit = {
+    var attempts = 0
+
+    val result = versionConflictRetryPolicy.retry(() => {
+      attempts += 1
+      if (attempts < 3) throw new VersionConflictException("conflict")
+      "someResult"
+    })
+
+    assertThat(result).isEqualTo("someResult")
+    assertThat(attempts).isEqualTo(3)
+  }
+
+  @Test
+  def retry_whenOperationKeepsConflicting_givesUpAfterMaxAttempts(): Unit = {
+    var attempts = 0
+
+    assertThatThrownBy(() => versionConflictRetryPolicy.retry(() => {
+      attempts += 1
+      throw new VersionConflictException("conflict")
+    })).isInstanceOf(classOf[VersionConflictException])
+    assertThat(attempts).isEqualTo(3)
+  }
+
+  @Test
+  def retry_doesNotRetryOtherFailures(): Unit = {
+    var attempts = 0
+
+    assertThatThrownBy(() => versionConflictRetryPolicy.retry(() => {
+      attempts += 1
+      throw new IndexOutOfBoundsException()
+    })).isInstanceOf(classOf[IndexOutOfBoundsException])
+    assertThat(attempts).isEqualTo(1)
+  }
+}
@@ -0,0 +1,94 @@
+package com.doerapispring.messaging
+
+import java.util.Date
+
+import com.doerapispring.domain.events.PulledEvent
+import com.doerapispring.domain.{ListId, OwnedObjectVersionedCache, TodoListModel, UserId, Versioned}
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.{After, Before, Test}
+import org.mockito.ArgumentMatchers.{any, anyInt}
+import org.mockito.Mockito._
+
+class DurabilityRoutingDomainEventPublisherTest {
+  private val userId = new UserId("someUserId")
+  private val listId = new ListId("someListId")
+  private val todoListModel = TodoListModel(Vector(), new Date(0L), 0)
+  private val meterRegistry = new SimpleMeterRegistry()
+  private var springApplicationEventsDomainEventPublisher: SpringApplicationEventsDomainEventPublisher = _
+  private var synchronousDomainEventPublisher: SynchronousDomainEventPublisher = _
+  private var groupCommitDomainEventPublisher: GroupCommitDomainEventPublisher = _
+  private var todoListModelCache: OwnedObjectVersionedCache[TodoListModel, UserId, ListId] = _
+  private var durabilityRoutingDomainEventPublisher: DurabilityRoutingDomainEventPublisher = _
+
+  @Before
+  def setUp(): Unit = {
+    springApplicationEventsDomainEventPublisher = mock(classOf[SpringApplicationEventsDomainEventPublisher])
+    synchronousDomainEventPublisher = mock(classOf[SynchronousDomainEventPublisher])
+    groupCommitDomainEventPublisher = mock(classOf[GroupCommitDomainEventPublisher])
+    todoListModelCache = mock(classOf[OwnedObjectVersionedCache[TodoListModel, UserId, ListId]])
+    durabilityRoutingDomainEventPublisher = new DurabilityRoutingDomainEventPublisher(
+      springApplicationEventsDomainEventPublisher,
+      synchronousDomainEventPublisher,
+      groupCommitDomainEventPublisher,
+      todoListModelCache,
+      Durability.FIRE_AND_FORGET,
+      meterRegistry)
+  }
+
+  @After
+  def tearDown(): Unit = {
+    DurabilityContextHolder.clear()
+  }
+
+  @Test
+  def publish_withoutOverride_usesDefaultDurability(): Unit = {
+    when(springApplicationEventsDomainEventPublisher.publish(todoListModel, PulledEvent(), userId, listId, 3)).thenReturn(todoListModel)
+
+    val publishedModel = durabilityRoutingDomainEventPublisher.publish(todoListModel, PulledEvent(), userId, listId, 3)
+
+    assertThat(publishedModel).isEqualTo(todoListModel)
+    verify(springApplicationEventsDomainEventPublisher).publish(todoListModel, PulledEvent(), userId, listId, 3)
+    verifyNoInteractions(synchronousDomainEventPublisher, groupCommitDomainEventPublisher)
+  }
+
+  @Test
+  def publish_withOverride_usesOverridingDurability(): Unit = {
+    DurabilityContextHolder.set(Durability.SYNCHRONOUS)
+
+    durabilityRoutingDomainEventPublisher.publish(todoListModel, PulledEvent(), userId, listId, 3)
+
+    verify(synchronousDomainEventPublisher).publish(todoListModel, PulledEvent(), userId, listId, 3)
+    verifyNoInteractions(springApplicationEventsDomainEventPublisher, groupCommitDomainEventPublisher)
+  }
+
+  @Test
+  def publish_recordsLatencyByDurability(): Unit = {
+    DurabilityContextHolder.set(Durability.GROUP_COMMIT)
+
+    durabilityRoutingDomainEventPublisher.publish(todoListModel, PulledEvent(), userId, listId, 3)
+
+    assertThat(meterRegistry.get("doer.events.publish").tag("durability", "GROUP_COMMIT").timer().count()).isEqualTo(1)
+    assertThat(meterRegistry.get("doer.events.publish").tag("durability", "FIRE_AND_FORGET").timer().count()).isEqualTo(0)
+    verify(groupCommitDomainEventPublisher).publish(any(), any(), any(), any(), anyInt())
+  }
+
+  @Test
+  def publish_whenDurable_cachesThePublishedModelAtItsNewVersion(): Unit = {
+    DurabilityContextHolder.set(Durability.SYNCHRONOUS)
+    when(synchronousDomainEventPublisher.publish(todoListModel, PulledEvent(), userId, listId, 3)).thenReturn(todoListModel)
+
+    durabilityRoutingDomainEventPublisher.publish(todoListModel, PulledEvent(), userId, listId, 3)
+
+    verify(todoListModelCache).written(userId, listId, Versioned(todoListModel, 4))
+  }
+
+  @Test
+  def publish_whenFireAndForget_doesNotCacheThePublishedModel(): Unit = {
+    when(springApplicationEventsDomainEventPublisher.publish(todoListModel, PulledEvent(), userId, listId, 3)).thenReturn(todoListModel)
+
+    durabilityRoutingDomainEventPublisher.publish(todoListModel, PulledEvent(), userId, listId, 3)
+
+    verifyNoInteractions(todoListModelCache)
+  }
+}
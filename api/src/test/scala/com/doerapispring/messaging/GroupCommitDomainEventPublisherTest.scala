@@ -0,0 +1,48 @@
+package com.doerapispring.messaging
+
+import java.util.Date
+import java.util.concurrent.CompletableFuture
+
+import com.doerapispring.domain._
+import com.doerapispring.domain.events.PulledEvent
+import com.doerapispring.storage.TodoListEventGroupCommitter
+import org.assertj.core.api.Assertions.{assertThat, assertThatThrownBy}
+import org.junit.{Before, Test}
+import org.mockito.Mockito._
+
+class GroupCommitDomainEventPublisherTest {
+  private val userId = new UserId("someUserId")
+  private val listId = new ListId("someListId")
+  private val todoListModel = TodoListModel(Vector(), new Date(0L), 0)
+  private var todoListEventGroupCommitter: TodoListEventGroupCommitter = _
+  private var snapshotTrigger: SnapshotTrigger[UserId, ListId] = _
+  private var groupCommitDomainEventPublisher: GroupCommitDomainEventPublisher = _
+
+  @Before
+  def setUp(): Unit = {
+    todoListEventGroupCommitter = mock(classOf[TodoListEventGroupCommitter])
+    snapshotTrigger = mock(classOf[SnapshotTrigger[UserId, ListId]])
+    groupCommitDomainEventPublisher = new GroupCommitDomainEventPublisher(todoListEventGroupCommitter, snapshotTrigger)
+  }
+
+  @Test
+  def publish_whenTheGroupCommits_snapshotsTheListIfDue(): Unit = {
+    when(todoListEventGroupCommitter.submit(userId, listId, 3, List(PulledEvent()))).thenReturn(CompletableFuture.completedFuture(4))
+
+    val publishedModel = groupCommitDomainEventPublisher.publish(todoListModel, PulledEvent(), userId, listId, 3)
+
+    assertThat(publishedModel).isEqualTo(todoListModel)
+    verify(snapshotTrigger).snapshotIfDue(userId, listId)
+  }
+
+  @Test
+  def publish_whenTheGroupFails_throwsItsCauseWithoutSnapshotting(): Unit = {
+    val failed = new CompletableFuture[Int]()
+    failed.completeExceptionally(new VersionConflictException("someMessage"))
+    when(todoListEventGroupCommitter.submit(userId, listId, 3, List(PulledEvent()))).thenReturn(failed)
+
+    assertThatThrownBy(() => groupCommitDomainEventPublisher.publish(todoListModel, PulledEvent(), userId, listId, 3))
+      .isInstanceOf(classOf[VersionConflictException])
+    verifyNoInteractions(snapshotTrigger)
+  }
+}
@@ -0,0 +1,45 @@
+package com.doerapispring.messaging
+
+import java.util.Date
+
+import com.doerapispring.domain._
+import com.doerapispring.domain.events.{PulledEvent, TodoListEvent}
+import org.assertj.core.api.Assertions.{assertThat, assertThatThrownBy}
+import org.junit.{Before, Test}
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito._
+
+class SynchronousDomainEventPublisherTest {
+  private val userId = new UserId("someUserId")
+  private val listId = new ListId("someListId")
+  private val todoListModel = TodoListModel(Vector(), new Date(0L), 0)
+  private var todoListEventRepository: OwnedObjectVersionedWriteRepository[TodoListEvent, UserId, ListId] = _
+  private var snapshotTrigger: SnapshotTrigger[UserId, ListId] = _
+  private var synchronousDomainEventPublisher: SynchronousDomainEventPublisher = _
+
+  @Before
+  def setUp(): Unit = {
+    todoListEventRepository = mock(classOf[OwnedObjectVersionedWriteRepository[TodoListEvent, UserId, ListId]])
+    snapshotTrigger = mock(classOf[SnapshotTrigger[UserId, ListId]])
+    synchronousDomainEventPublisher = new SynchronousDomainEventPublisher(todoListEventRepository, snapshotTrigger)
+  }
+
+  @Test
+  def publish_appendsTheEventAndThenSnapshotsTheListIfDue(): Unit = {
+    val publishedModel = synchronousDomainEventPublisher.publish(todoListModel, PulledEvent(), userId, listId, 3)
+
+    assertThat(publishedModel).isEqualTo(todoListModel)
+    val appendedThenSnapshotted = inOrder(todoListEventRepository, snapshotTrigger)
+    appendedThenSnapshotted.verify(todoListEventRepository).append(userId, listId, 3, List(PulledEvent()))
+    appendedThenSnapshotted.verify(snapshotTrigger).snapshotIfDue(userId, listId)
+  }
+
+  @Test
+  def publish_whenTheAppendConflicts_doesNotSnapshot(): Unit = {
+    when(todoListEventRepository.append(any(), any(), any(), any())).thenThrow(new VersionConflictException("someMessage"))
+
+    assertThatThrownBy(() => synchronousDomainEventPublisher.publish(todoListModel, PulledEvent(), userId, listId, 3))
+      .isInstanceOf(classOf[VersionConflictException])
+    verifyNoInteractions(snapshotTrigger)
+  }
+}
@@ -52,7 +52,7 @@ class AbstractTodoListModelSnapshotRepositoryTest {
   @Test
   def savesTheTodoListModelSnapshot(): Unit = {
     val todoListModel = TestTodoListModel("someValue")
-    val todoListModelSnapshot = Snapshot(todoListModel, Date.from(Instant.now()))
+    val todoListModelSnapshot = Snapshot(todoListModel, Date.from(Instant.now()), 3)
 
     todoListModelSnapshotRepository.save(userId, listId, todoListModelSnapshot)
 
@@ -64,12 +64,12 @@ class AbstractTodoListModelSnapshotRepositoryTest {
   @Test
   def updatesTheTodoListModelSnapshot(): Unit = {
     val todoListModel = TestTodoListModel("someValue")
-    val todoListModelSnapshot = Snapshot(todoListModel, Date.from(Instant.now()))
+    val todoListModelSnapshot = Snapshot(todoListModel, Date.from(Instant.now()), 3)
 
     todoListModelSnapshotRepository.save(userId, listId, todoListModelSnapshot)
 
     val updatedTodoListModel = TestTodoListModel("someUpdatedValue")
-    val updatedTodoListModelSnapshot = Snapshot(updatedTodoListModel, Date.from(Instant.now()))
+    val updatedTodoListModelSnapshot = Snapshot(updatedTodoListModel, Date.from(Instant.now()), 7)
     todoListModelSnapshotRepository.save(userId, listId, updatedTodoListModelSnapshot)
 
     val actualTodoListModelSnapshot = todoListModelSnapshotRepository.find(userId, listId)
@@ -0,0 +1,178 @@
+package com.doerapispring.storage
+
+import java.time.Duration
+import java.util.Date
+
+import com.doerapispring.domain.{ListId, TodoListModel, UserId, Versioned}
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.{Before, Test}
+import org.mockito.Mockito._
+
+class CachingTodoListModelRepositoryTest {
+  private val userId = new UserId("someUserId")
+  private val listId = new ListId("someListId")
+  private val meterRegistry = new SimpleMeterRegistry()
+  private var todoListModelEventSourcedRepository: TodoListModelEventSourcedRepository = _
+  private var cachingTodoListModelRepository: CachingTodoListModelRepository = _
+
+  @Before
+  def setUp(): Unit = {
+    todoListModelEventSourcedRepository = mock(classOf[TodoListModelEventSourcedRepository])
+    cachingTodoListModelRepository = new CachingTodoListModelRepository(todoListModelEventSourcedRepository, 10, Duration.ofMinutes(1), false, meterRegistry)
+  }
+
+  @Test
+  def findVersioned_whenNotCached_loadsTheList(): Unit = {
+    val todoListModel = versioned(3)
+    when(todoListModelEventSourcedRepository.findVersioned(userId, listId)).thenReturn(Some(todoListModel))
+
+    assertThat(cachingTodoListModelRepository.findVersioned(userId, listId)).isEqualTo(Some(todoListModel))
+  }
+
+  @Test
+  def findVersioned_whenCached_catchesUpFromTheCachedVersion(): Unit = {
+    val cachedTodoListModel = versioned(3)
+    val caughtUpTodoListModel = versioned(5)
+    when(todoListModelEventSourcedRepository.findVersioned(userId, listId)).thenReturn(Some(cachedTodoListModel))
+    when(todoListModelEventSourcedRepository.findVersioned(userId, listId, cachedTodoListModel)).thenReturn(Some(caughtUpTodoListModel))
+    cachingTodoListModelRepository.findVersioned(userId, listId)
+
+    assertThat(cachingTodoListModelRepository.findVersioned(userId, listId)).isEqualTo(Some(caughtUpTodoListModel))
+    verify(todoListModelEventSourcedRepository, times(1)).findVersioned(userId, listId)
+  }
+
+  @Test
+  def findVersioned_whenCatchUpFails_dropsTheCachedList(): Unit = {
+    val cachedTodoListModel = versioned(3)
+    when(todoListModelEventSourcedRepository.findVersioned(userId, listId)).thenReturn(Some(cachedTodoListModel))
+    when(todoListModelEventSourcedRepository.findVersioned(userId, listId, cachedTodoListModel)).thenReturn(None)
+    cachingTodoListModelRepository.findVersioned(userId, listId)
+
+    assertThat(cachingTodoListModelRepository.findVersioned(userId, listId)).isEqualTo(None)
+    cachingTodoListModelRepository.findVersioned(userId, listId)
+    verify(todoListModelEventSourcedRepository, times(2)).findVersioned(userId, listId)
+  }
+
+  @Test
+  def findVersioned_recordsHitsAndMisses(): Unit = {
+    val todoListModel = versioned(3)
+    when(todoListModelEventSourcedRepository.findVersioned(userId, listId)).thenReturn(Some(todoListModel))
+    when(todoListModelEventSourcedRepository.findVersioned(userId, listId, todoListModel)).thenReturn(Some(todoListModel))
+
+    cachingTodoListModelRepository.findVersioned(userId, listId)
+    cachingTodoListModelRepository.findVersioned(userId, listId)
+
+    assertThat(meterRegistry.get("cache.gets").tag("cache", "todoListModels").tag("result", "miss").functionCounter().count()).isEqualTo(1)
+    assertThat(meterRegistry.get("cache.gets").tag("cache", "todoListModels").tag("result", "hit").functionCounter().count()).isEqualTo(1)
+  }
+
+  @Test
+  def findVersioned_whenTrustingNotifications_servesCurrentListsWithoutCatchingUp(): Unit = {
+    val trustingRepository = new CachingTodoListModelRepository(todoListModelEventSourcedRepository, 10, Duration.ofMinutes(1), true, meterRegistry)
+    val todoListModel = versioned(3)
+    when(todoListModelEventSourcedRepository.findVersioned(userId, listId)).thenReturn(Some(todoListModel))
+    trustingRepository.notificationsStarted()
+    trustingRepository.findVersioned(userId, listId)
+    trustingRepository.appended(userId, listId, 3)
+
+    assertThat(trustingRepository.findVersioned(userId, listId)).isEqualTo(Some(todoListModel))
+    verify(todoListModelEventSourcedRepository, never()).findVersioned(userId, listId, todoListModel)
+  }
+
+  @Test
+  def findVersioned_whenTrustingNotifications_catchesUpListsAnnouncedAsAppended(): Unit = {
+    val trustingRepository = new CachingTodoListModelRepository(todoListModelEventSourcedRepository, 10, Duration.ofMinutes(1), true, meterRegistry)
+    val cachedTodoListModel = versioned(3)
+    val caughtUpTodoListModel = versioned(4)
+    when(todoListModelEventSourcedRepository.findVersioned(userId, listId)).thenReturn(Some(cachedTodoListModel))
+    when(todoListModelEventSourcedRepository.findVersioned(userId, listId, cachedTodoListModel)).thenReturn(Some(caughtUpTodoListModel))
+    trustingRepository.notificationsStarted()
+    trustingRepository.findVersioned(userId, listId)
+    trustingRepository.appended(userId, listId, 4)
+
+    assertThat(trustingRepository.findVersioned(userId, listId)).isEqualTo(Some(caughtUpTodoListModel))
+    assertThat(trustingRepository.findVersioned(userId, listId)).isEqualTo(Some(caughtUpTodoListModel))
+    verify(todoListModelEventSourcedRepository, times(1)).findVersioned(userId, listId, cachedTodoListModel)
+  }
+
+  @Test
+  def findVersioned_whenTrustingNotifications_catchesUpListsCachedBeforeListening(): Unit = {
+    val trustingRepository = new CachingTodoListModelRepository(todoListModelEventSourcedRepository, 10, Duration.ofMinutes(1), true, meterRegistry)
+    val cachedTodoListModel = versioned(3)
+    val caughtUpTodoListModel = versioned(4)
+    when(todoListModelEventSourcedRepository.findVersioned(userId, listId)).thenReturn(Some(cachedTodoListModel))
+    when(todoListModelEventSourcedRepository.findVersioned(userId, listId, cachedTodoListModel)).thenReturn(Some(caughtUpTodoListModel))
+    trustingRepository.findVersioned(userId, listId)
+    trustingRepository.notificationsStarted()
+
+    assertThat(trustingRepository.findVersioned(userId, listId)).isEqualTo(Some(caughtUpTodoListModel))
+    assertThat(trustingRepository.findVersioned(userId, listId)).isEqualTo(Some(caughtUpTodoListModel))
+    verify(todoListModelEventSourcedRepository, times(1)).findVersioned(userId, listId, cachedTodoListModel)
+    verify(todoListModelEventSourcedRepository, never()).findVersioned(userId, listId, caughtUpTodoListModel)
+  }
+
+  @Test
+  def findVersion_whenTrustingNotifications_readsListsCachedBeforeReconnecting(): Unit = {
+    val trustingRepository = new CachingTodoListModelRepository(todoListModelEventSourcedRepository, 10, Duration.ofMinutes(1), true, meterRegistry)
+    when(todoListModelEventSourcedRepository.findVersioned(userId, listId)).thenReturn(Some(versioned(3)))
+    when(todoListModelEventSourcedRepository.findVersion(userId, listId)).thenReturn(Some(4))
+    trustingRepository.notificationsStarted()
+    trustingRepository.findVersioned(userId, listId)
+    trustingRepository.notificationsStarted()
+
+    assertThat(trustingRepository.findVersion(userId, listId)).isEqualTo(Some(4))
+  }
+
+  @Test
+  def findVersioned_whenTrustingNotifications_catchesUpListsAnnouncedAsAppendedWhileBeingRead(): Unit = {
+    val trustingRepository = new CachingTodoListModelRepository(todoListModelEventSourcedRepository, 10, Duration.ofMinutes(1), true, meterRegistry)
+    val staleTodoListModel = versioned(3)
+    val caughtUpTodoListModel = versioned(4)
+    when(todoListModelEventSourcedRepository.findVersioned(userId, listId)).thenAnswer(_ => {
+      trustingRepository.appended(userId, listId, 4)
+      Some(staleTodoListModel)
+    })
+    when(todoListModelEventSourcedRepository.findVersioned(userId, listId, staleTodoListModel)).thenReturn(Some(caughtUpTodoListModel))
+    trustingRepository.notificationsStarted()
+    trustingRepository.findVersioned(userId, listId)
+
+    assertThat(trustingRepository.findVersioned(userId, listId)).isEqualTo(Some(caughtUpTodoListModel))
+    assertThat(trustingRepository.findVersion(userId, listId)).isEqualTo(Some(4))
+  }
+
+  @Test
+  def findVersioned_whenTrustingNotifications_servesListsWrittenByThisNode(): Unit = {
+    val trustingRepository = new CachingTodoListModelRepository(todoListModelEventSourcedRepository, 10, Duration.ofMinutes(1), true, meterRegistry)
+    val cachedTodoListModel = versioned(3)
+    val writtenTodoListModel = versioned(4)
+    when(todoListModelEventSourcedRepository.findVersioned(userId, listId)).thenReturn(Some(cachedTodoListModel))
+    trustingRepository.notificationsStarted()
+    trustingRepository.findVersioned(userId, listId)
+
+    trustingRepository.written(userId, listId, writtenTodoListModel)
+    trustingRepository.appended(userId, listId, 4)
+
+    assertThat(trustingRepository.findVersioned(userId, listId)).isEqualTo(Some(writtenTodoListModel))
+    verify(todoListModelEventSourcedRepository, never()).findVersioned(userId, listId, cachedTodoListModel)
+  }
+
+  @Test
+  def notificationsStopped_dropsEveryCachedList(): Unit = {
+    val trustingRepository = new CachingTodoListModelRepository(todoListModelEventSourcedRepository, 10, Duration.ofMinutes(1), true, meterRegistry)
+    val todoListModel = versioned(3)
+    when(todoListModelEventSourcedRepository.findVersioned(userId, listId)).thenReturn(Some(todoListModel))
+    trustingRepository.notificationsStarted()
+    trustingRepository.findVersioned(userId, listId)
+
+    trustingRepository.notificationsStopped()
+    trustingRepository.notificationsStarted()
+    trustingRepository.findVersioned(userId, listId)
+
+    verify(todoListModelEventSourcedRepository, times(2)).findVersioned(userId, listId)
+  }
+
+  private def versioned(version: Int): Versioned[TodoListModel] = {
+    Versioned(TodoListModel(Vector(), new Date(version.toLong), 0), version)
+  }
+}
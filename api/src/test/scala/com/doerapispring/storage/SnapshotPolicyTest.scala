@@ -0,0 +1,32 @@
+package com.doerapispring.storage
+
+import java.time.{Clock, Duration, Instant, ZoneOffset}
+import java.util.Date
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+
+class SnapshotPolicyTest {
+  private val now = Instant.parse("2020-06-01T12:00:00Z")
+  private val snapshotPolicy = new SnapshotPolicy(10, Duration.ofHours(1), Clock.fixed(now, ZoneOffset.UTC))
+
+  @Test
+  def isDue_whenTailIsEmpty_isFalse(): Unit = {
+    assertThat(snapshotPolicy.isDue(0, Date.from(now.minus(Duration.ofDays(30))))).isFalse
+  }
+
+  @Test
+  def isDue_whenTailIsShortAndSnapshotIsRecent_isFalse(): Unit = {
+    assertThat(snapshotPolicy.isDue(9, Date.from(now.minus(Duration.ofMinutes(59))))).isFalse
+  }
+
+  @Test
+  def isDue_whenTailReachesMaxEvents_isTrue(): Unit = {
+    assertThat(snapshotPolicy.isDue(10, Date.from(now))).isTrue
+  }
+
+  @Test
+  def isDue_whenSnapshotReachesMaxAge_isTrue(): Unit = {
+    assertThat(snapshotPolicy.isDue(1, Date.from(now.minus(Duration.ofHours(1))))).isTrue
+  }
+}
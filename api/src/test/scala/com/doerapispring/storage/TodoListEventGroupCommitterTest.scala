@@ -0,0 +1,84 @@
+package com.doerapispring.storage
+
+import java.time.Duration
+import java.util.concurrent.{CompletableFuture, TimeUnit}
+
+import com.doerapispring.domain.events.{EscalatedEvent, PulledEvent, TodoListEvent}
+import com.doerapispring.domain.{ListId, UserId, VersionConflictException}
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.assertj.core.api.Assertions.{assertThat, assertThatThrownBy}
+import org.junit.{After, Before, Test}
+import org.mockito.ArgumentMatchers.{any, anyInt, eq => eqTo}
+import org.mockito.Mockito._
+
+class TodoListEventGroupCommitterTest {
+  private val userId = new UserId("someUserId")
+  private val listId = new ListId("someListId")
+  private val otherListId = new ListId("someOtherListId")
+  private var todoListEventRepository: TodoListEventRepository = _
+  private var todoListEventGroupCommitter: TodoListEventGroupCommitter = _
+
+  @Before
+  def setUp(): Unit = {
+    todoListEventRepository = mock(classOf[TodoListEventRepository])
+    todoListEventGroupCommitter = new TodoListEventGroupCommitter(todoListEventRepository, Duration.ofMillis(50), 10, 100, new SimpleMeterRegistry())
+    todoListEventGroupCommitter.start()
+  }
+
+  @After
+  def tearDown(): Unit = {
+    if (todoListEventGroupCommitter.isRunning) todoListEventGroupCommitter.stop()
+  }
+
+  @Test
+  def submit_writesAppendsReceivedWithinTheWindowTogether(): Unit = {
+    val committed = todoListEventGroupCommitter.submit(userId, listId, 3, List(PulledEvent()))
+    val otherCommitted = todoListEventGroupCommitter.submit(userId, otherListId, 0, List(PulledEvent(), EscalatedEvent()))
+
+    assertThat(committed.get(1, TimeUnit.SECONDS)).isEqualTo(4)
+    assertThat(otherCommitted.get(1, TimeUnit.SECONDS)).isEqualTo(2)
+    verify(todoListEventRepository).appendAll(List(
+      TodoListEventAppend(userId, listId, 3, List(PulledEvent())),
+      TodoListEventAppend(userId, otherListId, 0, List(PulledEvent(), EscalatedEvent()))))
+  }
+
+  @Test
+  def submit_whenBatchConflicts_writesAppendsOneAtATime(): Unit = {
+    doThrow(new VersionConflictException("conflict")).when(todoListEventRepository).appendAll(any())
+    when(todoListEventRepository.append(eqTo(userId), eqTo(listId), anyInt(), any[List[TodoListEvent]]()))
+      .thenThrow(new VersionConflictException("conflict"))
+    when(todoListEventRepository.append(eqTo(userId), eqTo(otherListId), anyInt(), any[List[TodoListEvent]]()))
+      .thenReturn(1)
+
+    val committed = todoListEventGroupCommitter.submit(userId, listId, 3, List(PulledEvent()))
+    val otherCommitted = todoListEventGroupCommitter.submit(userId, otherListId, 0, List(PulledEvent()))
+
+    assertThatThrownBy(() => committed.get(1, TimeUnit.SECONDS)).hasCauseInstanceOf(classOf[VersionConflictException])
+    assertThat(otherCommitted.get(1, TimeUnit.SECONDS)).isEqualTo(1)
+  }
+
+  @Test
+  def submit_whenBatchFails_failsEveryAppendInIt(): Unit = {
+    doThrow(new IllegalStateException("connection lost")).when(todoListEventRepository).appendAll(any())
+
+    val committed = todoListEventGroupCommitter.submit(userId, listId, 3, List(PulledEvent()))
+    val otherCommitted = todoListEventGroupCommitter.submit(userId, otherListId, 0, List(PulledEvent()))
+
+    List(committed, otherCommitted).foreach(future =>
+      assertThatThrownBy(() => future.get(1, TimeUnit.SECONDS)).hasCauseInstanceOf(classOf[IllegalStateException]))
+    verify(todoListEventRepository, never()).append(any(), any(), anyInt(), any())
+  }
+
+  @Test
+  def stop_flushesQueuedAppendsThenWritesOnTheCaller(): Unit = {
+    when(todoListEventRepository.append(userId, listId, 4, List(PulledEvent()))).thenReturn(5)
+    val queued = todoListEventGroupCommitter.submit(userId, listId, 3, List(PulledEvent()))
+
+    todoListEventGroupCommitter.stop()
+    val afterStop: CompletableFuture[Int] = todoListEventGroupCommitter.submit(userId, listId, 4, List(PulledEvent()))
+
+    assertThat(queued.isDone).isTrue
+    assertThat(queued.get()).isEqualTo(4)
+    assertThat(afterStop.get()).isEqualTo(5)
+  }
+}
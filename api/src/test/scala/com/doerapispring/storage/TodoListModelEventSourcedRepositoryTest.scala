@@ -0,0 +1,88 @@
+package com.doerapispring.storage
+
+import java.time.{Clock, Duration}
+import java.util.Date
+
+import com.doerapispring.domain._
+import com.doerapispring.domain.events.{DeferredTodoAddedEvent, TodoAddedEvent}
+import com.fasterxml.jackson.databind.ObjectMapper
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.runner.RunWith
+import org.junit.{Before, Test}
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.test.context.ActiveProfiles
+import org.springframework.test.context.jdbc.Sql
+import org.springframework.test.context.junit4.SpringRunner
+
+@SpringBootTest
+@Sql(scripts = Array("/cleanup.sql"), executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = Array("/cleanup.sql"), executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+@ActiveProfiles(value = Array("test"))
+@RunWith(classOf[SpringRunner])
+class TodoListModelEventSourcedRepositoryTest {
+
+  @Autowired
+  private val userRepository: UserRepository = null
+
+  @Autowired
+  private val todoListRepository: TodoListRepository = null
+
+  @Autowired
+  private val todoListModelSnapshotRepository: TodoListModelSnapshotRepository = null
+
+  @Autowired
+  private val todoListEventRepository: TodoListEventRepository = null
+
+  @Autowired
+  private val jdbcTemplate: JdbcTemplate = null
+
+  @Autowired
+  private val objectMapper: ObjectMapper = null
+
+  private val userId: UserId = new UserId("someUserIdentifier")
+
+  private val listId: ListId = new ListId("someListIdentifier")
+
+  private var todoListModelEventSourcedRepository: TodoListModelEventSourcedRepository = _
+
+  @Before
+  def setUp(): Unit = {
+    val clock = Clock.systemUTC()
+    todoListModelEventSourcedRepository = new TodoListModelEventSourcedRepository(
+      todoListModelSnapshotRepository,
+      todoListModelSnapshotRepository,
+      new SnapshotPolicy(3, Duration.ofDays(1), clock),
+      objectMapper,
+      jdbcTemplate,
+      clock,
+      new SimpleMeterRegistry())
+    userRepository.save(new User(userId, listId))
+    todoListRepository.save(new TodoList(userId, listId, "someName"))
+    todoListModelSnapshotRepository.save(userId, listId, Snapshot(TodoListModel(), Date.from(clock.instant()), 0))
+  }
+
+  @Test
+  def findVersionedSince_whenTheCaughtUpTailIsDue_snapshotsTheCaughtUpList(): Unit = {
+    val cached = todoListModelEventSourcedRepository.findVersioned(userId, listId).get
+    todoListEventRepository.append(userId, listId, cached.version, List(TodoAddedEvent("someTask"), TodoAddedEvent("someOtherTask"), DeferredTodoAddedEvent("someDeferredTask")))
+
+    val caughtUp = todoListModelEventSourcedRepository.findVersioned(userId, listId, cached).get
+
+    val snapshot = todoListModelSnapshotRepository.find(userId, listId).get
+    assertThat(snapshot.version).isEqualTo(caughtUp.version)
+    assertThat(snapshot.model).isEqualTo(caughtUp.model)
+  }
+
+  @Test
+  def findVersionedSince_whenTheCaughtUpTailIsNotDue_leavesTheSnapshot(): Unit = {
+    val cached = todoListModelEventSourcedRepository.findVersioned(userId, listId).get
+    todoListEventRepository.append(userId, listId, cached.version, List(TodoAddedEvent("someTask")))
+
+    todoListModelEventSourcedRepository.findVersioned(userId, listId, cached)
+
+    assertThat(todoListModelSnapshotRepository.find(userId, listId).get.version).isEqualTo(cached.version)
+  }
+}
@@ -0,0 +1,45 @@
+package com.doerapispring.web
+
+import java.util.Date
+
+import com.doerapispring.domain.DomainException
+import com.doerapispring.domain.events.{TodoCompletedEvent, TodoMovedEvent}
+import org.assertj.core.api.Assertions.{assertThat, assertThatThrownBy}
+import org.junit.Test
+
+class TodoListCommandTransformerTest {
+  private val todoListCommandTransformer = new TodoListCommandTransformer
+  private val now = new Date(1L)
+
+  @Test
+  def transform_move_usesBothIndices(): Unit = {
+    assertThat(todoListCommandTransformer.transform(TodoListCommandDTO("move", 2, 0, null), now))
+      .isEqualTo(TodoMovedEvent(2, 0))
+  }
+
+  @Test
+  def transform_complete_completesAtTheServersTime(): Unit = {
+    assertThat(todoListCommandTransformer.transform(TodoListCommandDTO("complete", 1, null, null), now))
+      .isEqualTo(TodoCompletedEvent(1, now))
+  }
+
+  @Test
+  def transform_whenAFieldIsMissing_rejectsTheCommand(): Unit = {
+    assertThatThrownBy(() => todoListCommandTransformer.transform(TodoListCommandDTO("update", 1, null, null), now))
+      .isInstanceOf(classOf[DomainException])
+  }
+
+  @Test
+  def transform_whenAnIndexIsMissing_rejectsTheCommand(): Unit = {
+    assertThatThrownBy(() => todoListCommandTransformer.transform(TodoListCommandDTO("complete", null, null, null), now))
+      .isInstanceOf(classOf[DomainException])
+    assertThatThrownBy(() => todoListCommandTransformer.transform(TodoListCommandDTO("move", 1, null, null), now))
+      .isInstanceOf(classOf[DomainException])
+  }
+
+  @Test
+  def transform_whenTheTypeIsUnknown_rejectsTheCommand(): Unit = {
+    assertThatThrownBy(() => todoListCommandTransformer.transform(TodoListCommandDTO("someType", null, null, null), now))
+      .isInstanceOf(classOf[DomainException])
+  }
+}
@@ -0,0 +1,84 @@
+package com.doerapispring.web
+
+import java.time.Instant
+import java.util.Date
+import java.util.concurrent.atomic.AtomicInteger
+
+import com.doerapispring.domain.{TodoListModel, Versioned}
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+
+class TodoListETagTest {
+  private val todoListETag = new TodoListETag
+  private val now = Date.from(Instant.parse("2020-06-01T12:00:00Z"))
+  private val lockedList = Versioned(TodoListModel(Vector(), new Date(0L), 0), 7)
+  private val unlockedList = Versioned(TodoListModel(Vector(), Date.from(now.toInstant.minusSeconds(60)), 0), 7)
+
+  @Test
+  def of_whenLocked_tagsUntilMidnight(): Unit = {
+    assertThat(todoListETag.of(lockedList, now, MoveLinks.EACH))
+      .isEqualTo(Versioned("\"7." + Instant.parse("2020-06-02T00:00:00Z").toEpochMilli + ".each\"", 7))
+  }
+
+  @Test
+  def of_whenUnlocked_tagsWeaklyUntilTheListLocksAgain(): Unit = {
+    assertThat(todoListETag.of(unlockedList, now, MoveLinks.EACH))
+      .isEqualTo(Versioned("W/\"7." + Instant.parse("2020-06-01T12:29:00Z").toEpochMilli + ".each\"", 7))
+  }
+
+  @Test
+  def matching_whenWeakTagIsCurrent_findsTheTag(): Unit = {
+    val eTag = todoListETag.of(unlockedList, now, MoveLinks.EACH)
+
+    assertThat(todoListETag.matching(eTag.model, now, MoveLinks.EACH, () => 7)).hasValue(eTag)
+  }
+
+  @Test
+  def matching_whenUnlockedListHasLockedAgain_findsNothing(): Unit = {
+    val eTag = todoListETag.of(unlockedList, now, MoveLinks.EACH)
+
+    assertThat(todoListETag.matching(eTag.model, Date.from(Instant.parse("2020-06-01T12:29:00Z")), MoveLinks.EACH, () => 7)).isEmpty
+  }
+
+  @Test
+  def matchesAny_whenAnyTagIsAsked_matches(): Unit = {
+    assertThat(todoListETag.matchesAny(" * ")).isTrue
+    assertThat(todoListETag.matchesAny(todoListETag.of(lockedList, now, MoveLinks.EACH).model)).isFalse
+  }
+
+  @Test
+  def matching_whenVersionIsCurrent_findsTheTag(): Unit = {
+    val eTag = todoListETag.of(lockedList, now, MoveLinks.EACH)
+
+    assertThat(todoListETag.matching("\"someOtherTag\", " + eTag.model, now, MoveLinks.EACH, () => 7)).hasValue(eTag)
+  }
+
+  @Test
+  def of_tagsEachKindOfMoveLinkDifferently(): Unit = {
+    assertThat(todoListETag.of(lockedList, now, MoveLinks.TEMPLATED))
+      .isEqualTo(Versioned("\"7." + Instant.parse("2020-06-02T00:00:00Z").toEpochMilli + ".templated\"", 7))
+  }
+
+  @Test
+  def matching_whenTagIsForAnotherKindOfMoveLink_findsNothing(): Unit = {
+    val eTag = todoListETag.of(lockedList, now, MoveLinks.EACH).model
+
+    assertThat(todoListETag.matching(eTag, now, MoveLinks.TEMPLATED, () => 7)).isEmpty
+  }
+
+  @Test
+  def matching_whenListHasChanged_findsNothing(): Unit = {
+    val eTag = todoListETag.of(lockedList, now, MoveLinks.EACH).model
+
+    assertThat(todoListETag.matching(eTag, now, MoveLinks.EACH, () => 8)).isEmpty
+  }
+
+  @Test
+  def matching_whenTagHasRunOut_findsNothingWithoutAskingForTheVersion(): Unit = {
+    val eTag = todoListETag.of(lockedList, now, MoveLinks.EACH).model
+    val versionLookups = new AtomicInteger()
+
+    assertThat(todoListETag.matching(eTag, Date.from(Instant.parse("2020-06-02T00:00:00Z")), MoveLinks.EACH, () => versionLookups.incrementAndGet())).isEmpty
+    assertThat(versionLookups.get()).isEqualTo(0)
+  }
+}
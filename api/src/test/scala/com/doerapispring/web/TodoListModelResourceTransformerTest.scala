@@ -0,0 +1,57 @@
+package com.doerapispring.web
+
+import java.time.Instant
+import java.util.Date
+
+import com.doerapispring.domain.{ListId, Todo, TodoListModel}
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.module.scala.DefaultScalaModule
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.{After, Test}
+
+class TodoListModelResourceTransformerTest {
+  private val todoListModelResourceTransformer = new TodoListModelResourceTransformer(new MockHateoasLinkGenerator, new SimpleMeterRegistry())
+  private val listId = new ListId("someListId")
+  private val now = Date.from(Instant.parse("2020-06-01T12:00:00Z"))
+  private val todoListModel = TodoListModel(Vector(Todo("someTask"), Todo("someOtherTask"), Todo("someDeferredTask"), Todo("someOtherDeferredTask"), Todo("yetAnotherDeferredTask")), now, 2)
+
+  @After
+  def tearDown(): Unit = {
+    MoveLinksContextHolder.clear()
+  }
+
+  @Test
+  def transform_linksEveryMoveOfEveryTodo(): Unit = {
+    val list = todoListModelResourceTransformer.transform(listId, todoListModel, now).list
+
+    assertThat(list.todos.map(_.getLinks("move").size())).isEqualTo(List(2, 2))
+    assertThat(list.deferredTodos.map(_.getLinks("move").size())).isEqualTo(List(3, 3, 3))
+    assertThat(list.getLink("move")).isEmpty
+    assertThat(new ObjectMapper().registerModule(DefaultScalaModule).writeValueAsString(list)).doesNotContain("moveRange")
+  }
+
+  @Test
+  def transform_withTemplatedMoveLinks_linksEachSectionOnce(): Unit = {
+    MoveLinksContextHolder.set(MoveLinks.TEMPLATED)
+
+    val list = todoListModelResourceTransformer.transform(listId, todoListModel, now).list
+
+    assertThat((list.todos ++ list.deferredTodos).map(_.getLinks("move").size())).isEqualTo(List(0, 0, 0, 0, 0))
+    assertThat(list.getRequiredLink("move").getHref).isEqualTo(MockHateoasLinkGenerator.MOCK_BASE_URL + "/lists/someListId/todos/{index}/moveTodo/{targetIndex}")
+    assertThat(list.getRequiredLink("moveDeferred").isTemplated).isTrue
+    assertThat(list.moveRange).isEqualTo(Some(IndexRangeDTO(0, 1)))
+    assertThat(list.deferredMoveRange).isEqualTo(Some(IndexRangeDTO(2, 4)))
+  }
+
+  @Test
+  def transform_withTemplatedMoveLinks_whenLocked_leavesTheLaterSectionUnlinked(): Unit = {
+    MoveLinksContextHolder.set(MoveLinks.TEMPLATED)
+
+    val list = todoListModelResourceTransformer.transform(listId, todoListModel.copy(lastUnlockedAt = new Date(0L)), now).list
+
+    assertThat(list.moveRange).isEqualTo(Some(IndexRangeDTO(0, 1)))
+    assertThat(list.deferredMoveRange).isEqualTo(None)
+    assertThat(list.getLink("moveDeferred")).isEmpty
+  }
+}